@@ -0,0 +1,291 @@
+package com.ecommerce.config;
+
+import com.ecommerce.model.SessionCart;
+import com.ecommerce.model.User;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SessionAttributeSerializer - Compact, versioned binary format for session attributes
+ * Covers the values SessionManager stores (user principal, session cart, browse history lists);
+ * anything else falls back to Java serialization inside the same envelope
+ */
+public class SessionAttributeSerializer implements Serializer<Object>, Deserializer<Object> {
+
+    static final int MAGIC = 0x5E;
+    static final int VERSION = 1;
+
+    // Java serialization streams start with 0xACED; blobs written before this format still load
+    private static final int JAVA_STREAM_MAGIC = 0xAC;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_LONG = 2;
+    private static final int TAG_INTEGER = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_BOOLEAN = 5;
+    private static final int TAG_MAP = 6;
+    private static final int TAG_LIST = 7;
+    private static final int TAG_USER = 8;
+    private static final int TAG_JAVA = 9;
+    private static final int TAG_CART = 10;
+
+    // ============== SERIALIZATION ==============
+
+    public byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            serialize(value, bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to serialize session attribute", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeValue(out, value);
+        out.flush();
+    }
+
+    public Object deserialize(byte[] payload) {
+        try {
+            return deserialize(new ByteArrayInputStream(payload));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read session attribute", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(inputStream, 1);
+        int first = pushback.read();
+        if (first == JAVA_STREAM_MAGIC) {
+            pushback.unread(first);
+            return readJava(pushback);
+        }
+        if (first != MAGIC) {
+            throw new IOException("Unknown session attribute format");
+        }
+        DataInputStream in = new DataInputStream(pushback);
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported session attribute version " + version);
+        }
+        return readValue(in);
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(TAG_STRING);
+            writeString(out, string);
+        } else if (value instanceof Long number) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, number);
+        } else if (value instanceof Integer number) {
+            out.writeByte(TAG_INTEGER);
+            writeVarLong(out, number);
+        } else if (value instanceof Double number) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Boolean flag) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean(flag);
+        } else if (value instanceof User user) {
+            out.writeByte(TAG_USER);
+            writeUser(out, user);
+        } else if (value instanceof SessionCart cart) {
+            out.writeByte(TAG_CART);
+            writeCart(out, cart);
+        } else if (value instanceof Map<?, ?> map && hasStringKeys(map)) {
+            out.writeByte(TAG_MAP);
+            writeVarLong(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, (String) entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TAG_LIST);
+            writeVarLong(out, list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else {
+            out.writeByte(TAG_JAVA);
+            byte[] bytes = writeJava(value);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_LONG:
+                return readVarLong(in);
+            case TAG_INTEGER:
+                return (int) readVarLong(in);
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_USER:
+                return readUser(in);
+            case TAG_CART:
+                return readCart(in);
+            case TAG_MAP: {
+                int size = (int) readVarLong(in);
+                Map<String, Object> map = new HashMap<>(Math.max(4, size * 2));
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in));
+                }
+                return map;
+            }
+            case TAG_LIST: {
+                int size = (int) readVarLong(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case TAG_JAVA: {
+                byte[] bytes = new byte[(int) readVarLong(in)];
+                in.readFully(bytes);
+                return readJava(new ByteArrayInputStream(bytes));
+            }
+            default:
+                throw new IOException("Unknown session attribute tag " + tag);
+        }
+    }
+
+    // Only the principal fields travel with the session; the entity is reloaded when more is needed
+    private void writeUser(DataOutputStream out, User user) throws IOException {
+        writeValue(out, user.getId());
+        writeValue(out, user.getUsername());
+        writeValue(out, user.getEmail());
+        writeValue(out, user.getFirstName());
+        writeValue(out, user.getLastName());
+        writeValue(out, user.getIsActive());
+    }
+
+    private User readUser(DataInputStream in) throws IOException {
+        User user = new User();
+        user.setId((Long) readValue(in));
+        user.setUsername((String) readValue(in));
+        user.setEmail((String) readValue(in));
+        user.setFirstName((String) readValue(in));
+        user.setLastName((String) readValue(in));
+        user.setIsActive((Boolean) readValue(in));
+        return user;
+    }
+
+    private void writeCart(DataOutputStream out, SessionCart cart) throws IOException {
+        writeVarLong(out, cart.size());
+        for (int i = 0; i < cart.size(); i++) {
+            writeVarLong(out, cart.getProductId(i));
+            writeValue(out, cart.getProductName(i));
+            writeVarLong(out, cart.getUnitPriceCents(i));
+            writeVarLong(out, cart.getQuantity(i));
+        }
+    }
+
+    private SessionCart readCart(DataInputStream in) throws IOException {
+        SessionCart cart = new SessionCart();
+        int size = (int) readVarLong(in);
+        for (int i = 0; i < size; i++) {
+            long productId = readVarLong(in);
+            String productName = (String) readValue(in);
+            long priceCents = readVarLong(in);
+            cart.put(productId, productName, priceCents, (int) readVarLong(in));
+        }
+        return cart;
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Zig-zag varint: small ids, quantities and timestamps take 1-6 bytes instead of 8
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static byte[] writeJava(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object readJava(InputStream inputStream) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(inputStream)) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unable to read session attribute", e);
+        }
+    }
+}
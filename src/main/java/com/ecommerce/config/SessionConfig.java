@@ -1,9 +1,32 @@
 package com.ecommerce.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
 import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
 
 @Configuration
-@EnableJdbcHttpSession(maxInactiveIntervalInSeconds = 1800)
+// ON_SAVE batches all attribute changes of a request into a single flush when the response commits
+@EnableJdbcHttpSession(maxInactiveIntervalInSeconds = 1800, flushMode = FlushMode.ON_SAVE,
+        saveMode = SaveMode.ON_SET_ATTRIBUTE)
 public class SessionConfig {
-}
\ No newline at end of file
+
+    // Picked up by name by Spring Session JDBC to encode SPRING_SESSION_ATTRIBUTES.ATTRIBUTE_BYTES
+    @Bean("springSessionConversionService")
+    public ConversionService springSessionConversionService(SessionAttributeSerializer sessionAttributeSerializer) {
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(sessionAttributeSerializer));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(sessionAttributeSerializer));
+        return conversionService;
+    }
+
+    @Bean
+    public SessionAttributeSerializer sessionAttributeSerializer() {
+        return new SessionAttributeSerializer();
+    }
+}
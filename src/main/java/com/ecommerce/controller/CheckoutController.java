@@ -1,9 +1,13 @@
 package com.ecommerce.controller;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -12,12 +16,15 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
 
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
+import com.ecommerce.dto.CartLineView;
 import com.ecommerce.model.Cart;
 import com.ecommerce.model.CartItem;
 import com.ecommerce.model.Customer;
@@ -29,15 +36,22 @@ import com.ecommerce.service.CartItemInterface;
 import com.ecommerce.service.CustomerService;
 import com.ecommerce.service.OrderService;
 import com.ecommerce.service.OrderServiceImpl;
+import com.ecommerce.service.PaymentOutcome;
+import com.ecommerce.service.PaymentReconciler;
 import com.ecommerce.service.PaymentService;
 import com.ecommerce.service.PaymentServiceImpl;
 import com.ecommerce.service.CartService;
+import com.ecommerce.service.CheckoutIdempotencyCache;
+import com.ecommerce.service.StockReservationService;
 
 @Controller
 @RequestMapping("/checkout")
 public class CheckoutController {
 	
 	private static final Validator paymentValidator = null;
+	private static final String ORDER_CONFIRMATION_VIEW = "order-confirmation";
+	private static final String PAYMENT_PENDING_VIEW = "payment-pending";
+	private static final String ORDER_REDIRECT = "redirect:/checkout/orders/";
 
     @Autowired
 	private CartItemInterface cartItemInterface;
@@ -47,10 +61,25 @@ public class CheckoutController {
 	
 	@Autowired
 	private PaymentService paymentService;
+	
+	@Autowired
+	private StockReservationService stockReservationService;
+
+	@Autowired
+	private CheckoutIdempotencyCache checkoutIdempotencyCache;
+
+	@Autowired
+	private PaymentReconciler paymentReconciler;
+
+	@Autowired
+	private OrderRepository orderRepository;
 
 	@ModelAttribute("paymentForm")
 	public Payment paymentForm() {
-		return new Payment();
+		// fresh key per rendered form; a posted form binds its own key over this one
+		Payment payment = new Payment();
+		payment.setIdempotencyKey(UUID.randomUUID().toString());
+		return payment;
 	}
 
 	@InitBinder("paymentForm")
@@ -65,29 +94,60 @@ public class CheckoutController {
 			return "redirect:/login";
 		}
 		
-		List<CartItem> cartItems = cartItemInterface.getProductsInCart(customerId);
-		double totalAmount = cartItemInterface.calculateTotal(cartItems);
-		if (cartItems.isEmpty()) {
+		List<CartLineView> cartLines = cartItemInterface.getCartLines(customerId);
+		if (cartLines.isEmpty()) {
 			model.addAttribute("error", "Your cart is empty!");
 			return "cart-product";
 		}
 		
-		
-		model.addAttribute("cartItems", cartItems);
-		model.addAttribute("totalAmount", totalAmount);
+		model.addAttribute("cartItems", cartLines);
+		model.addAttribute("totalAmount", BigDecimal.valueOf(cartItemInterface.calculateTotalCents(cartLines), 2));
 		
 		return "checkout";
 	}
 	
 	@PostMapping("/checkout")
-	public String processPayment(@Valid @ModelAttribute("paymentForm") Payment payment,
+	public CompletableFuture<ModelAndView> processPayment(@Valid @ModelAttribute("paymentForm") Payment payment,
 			BindingResult bindingResult, Model model, HttpSession session) {
 		
 		Long customerId = (Long) session.getAttribute("customerId");
 		if (customerId==null) {
-			return "redirect:/login";
+			return view("redirect:/login");
+		}
+		
+		// a repeated submission (double click, retry) on this node waits for the first one and follows its redirect
+		// captured now: a re-rendered form gets a new key, but the claim is on the submitted one
+		String idempotencyKey = payment.getIdempotencyKey();
+		CompletableFuture<ModelAndView> outcome = new CompletableFuture<>();
+		CompletableFuture<ModelAndView> firstResult = checkoutIdempotencyCache.claim(customerId, idempotencyKey, outcome);
+		if (firstResult != null) {
+			return firstResult;
 		}
 		
+		// a synchronous failure must still release the claim and complete the waiting submissions
+		CompletableFuture<ModelAndView> submitted;
+		try {
+			submitted = submitCheckout(payment, bindingResult, model, customerId);
+		} catch (RuntimeException e) {
+			submitted = CompletableFuture.failedFuture(e);
+		}
+		submitted.whenComplete((result, ex) -> {
+			// a claimed order keeps the key; a failed attempt may be retried with it
+			if (ex != null || !result.getViewName().startsWith(ORDER_REDIRECT)) {
+				checkoutIdempotencyCache.release(customerId, idempotencyKey, outcome);
+			}
+			if (ex != null) {
+				outcome.completeExceptionally(ex);
+			} else {
+				outcome.complete(result);
+			}
+		});
+		return outcome;
+	}
+	
+	private CompletableFuture<ModelAndView> submitCheckout(Payment payment, BindingResult bindingResult,
+			Model model, Long customerId) {
+		
 		Optional<Customer> customerOpt = customerService.getCustomerById(customerId);
 		Customer customer = customerOpt.get();
 		Cart cart = cartService.findCart(customerId);
@@ -99,21 +159,98 @@ public class CheckoutController {
 		
 		if (cartItems.isEmpty()) {
 			model.addAttribute("error", "Your cart is empty!");
-			return "cart-product";
+			return view("cart-product");
 		}
 		
 		if(bindingResult.hasErrors()) {
-			return "checkout";
+			return view("checkout");
 		}
 		
-		boolean paymentSuccess = paymentService.processPayment(payment, totalAmount);
+		// a submission already claimed on any node is sent to its order, never charged again
+		String idempotencyKey = payment.getIdempotencyKey();
+		Optional<Order> existingOrder = orderRepository.findByIdempotencyKey(idempotencyKey);
+		if (existingOrder.isPresent()) {
+			return view(ORDER_REDIRECT + existingOrder.get().getId());
+		}
 		
-		if (!paymentSuccess) {
-			model.addAttribute("paymentError", "Payment is unsuccessful. Please try again.");
-			return "checkout";
+		// hold the stock before charging; released on failure or by the timeout sweep
+		String reservationId = stockReservationService.reserve(cartItems);
+		if (reservationId == null) {
+			model.addAttribute("paymentError", "Some items in your cart are out of stock.");
+			return view("checkout");
 		}
 		
-		Order order = orderService.createOrder(cartItems, customer);
-		return "order-confirmation";
+		// the key is claimed in the database before the card is charged
+		Order pendingOrder;
+		try {
+			pendingOrder = orderService.createPendingOrder(cartItems, customer, idempotencyKey);
+		} catch (DataIntegrityViolationException e) {
+			stockReservationService.release(reservationId);
+			// only the unique idempotency key means another submission got there first
+			Order claimed = orderRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+			return view(ORDER_REDIRECT + claimed.getId());
+		} catch (RuntimeException e) {
+			stockReservationService.release(reservationId);
+			throw e;
+		}
+		Long orderId = pendingOrder.getId();
+		
+		Runnable confirm = () -> {
+			orderService.confirmOrder(orderId);
+			stockReservationService.confirm(reservationId);
+		};
+		Runnable cancel = () -> {
+			if (orderService.cancelOrder(orderId)) {
+				stockReservationService.release(reservationId);
+			} else {
+				// already settled by another node's reconciler, which owns putting the stock back
+				stockReservationService.confirm(reservationId);
+			}
+		};
+		
+		// the servlet thread is released while the gateway call runs; the order is completed in the callback
+		return paymentService.processPaymentAsync(payment, totalAmount).thenApply(paymentOutcome -> {
+			if (paymentOutcome == PaymentOutcome.DECLINED || paymentOutcome == PaymentOutcome.BUSY) {
+				cancel.run();
+				// the gateway remembers the outcome per key, so a retry with this one would be declined again
+				payment.setIdempotencyKey(UUID.randomUUID().toString());
+				ModelAndView failed = new ModelAndView("checkout");
+				failed.addObject("paymentError", paymentOutcome == PaymentOutcome.BUSY
+						? "Payments are busy right now and your card was not charged. Please try again in a moment."
+						: "Payment is unsuccessful. Please try again.");
+				return failed;
+			}
+			if (paymentOutcome == PaymentOutcome.APPROVED) {
+				try {
+					confirm.run();
+					return new ModelAndView(ORDER_REDIRECT + orderId);
+				} catch (RuntimeException e) {
+					// the card is charged, so the order stays pending and confirming is retried below
+				}
+			}
+			// the card may still be charged: keep the stock, past its timeout, and the key until the gateway answers
+			stockReservationService.hold(reservationId);
+			paymentReconciler.track(idempotencyKey, confirm, cancel);
+			return new ModelAndView(ORDER_REDIRECT + orderId);
+		});
+	}
+	
+	//where every checkout that claimed an order lands, first submission or repeat
+	@GetMapping("/orders/{orderId}")
+	public String viewPlacedOrder(@PathVariable Long orderId, Model model, HttpSession session) {
+		Long customerId = (Long) session.getAttribute("customerId");
+		if (customerId==null) {
+			return "redirect:/login";
+		}
+		Optional<Order> order = orderRepository.findByIdAndUser_Id(orderId, customerId);
+		if (order.isEmpty()) {
+			return "redirect:/products/list";
+		}
+		model.addAttribute("orderId", orderId);
+		return order.get().getStatus() == Order.OrderStatus.PENDING ? PAYMENT_PENDING_VIEW : ORDER_CONFIRMATION_VIEW;
+	}
+	
+	private static CompletableFuture<ModelAndView> view(String viewName) {
+		return CompletableFuture.completedFuture(new ModelAndView(viewName));
 	}
 }
\ No newline at end of file
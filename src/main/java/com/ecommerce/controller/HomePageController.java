@@ -1,5 +1,6 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.service.FeaturedProductsCache;
 import com.ecommerce.service.ProductInterface;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -17,7 +18,7 @@ public class HomePageController {
         model.addAttribute("pageTitle", "FreshMart");
         model.addAttribute("heroTitle", "Fresh Groceries Delivered to Your Door");
         model.addAttribute("heroDescription", "Shop from our wide selection of fresh produce, dairy, bakery items, and more. Same-day delivery available.");
-        model.addAttribute("featuredProducts", productService.getFeaturedProducts(Integer.MAX_VALUE));
+        model.addAttribute("featuredProducts", productService.getFeaturedProducts(FeaturedProductsCache.MAX_FEATURED));
         return "home";
     }
 }
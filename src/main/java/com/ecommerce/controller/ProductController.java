@@ -1,17 +1,33 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.ProductImportResult;
+import com.ecommerce.dto.ProductPage;
 import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.service.CatalogExportService;
+import com.ecommerce.service.ProductCatalogCache;
+import com.ecommerce.service.ProductImportService;
 import com.ecommerce.service.ProductInterface;
+import com.ecommerce.service.ReviewAggregateStore;
 import com.ecommerce.service.SessionManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/products")
@@ -23,26 +39,49 @@ public class ProductController {
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private ReviewAggregateStore reviewAggregateStore;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Value("${product.import.admin-users:}")
+    private Set<String> importAdmins;
+
     @GetMapping({"", "/", "/list"})
     public String showProductsPage(Model model,
                                 @RequestParam(required = false) String category,
                                 @RequestParam(required = false) String search,
+                                @RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer size,
                                 HttpServletRequest request) {
         try {
             List<Product> products;
             
             if (search != null && !search.trim().isEmpty()) {
-                products = productService.findByNameContainingIgnoreCase(search.trim());
+                products = productService.searchProducts(search.trim());
                 model.addAttribute("searchTerm", search.trim());
             } else if (category != null && !category.trim().isEmpty()) {
                 products = productService.findByCategory(category.trim());
                 model.addAttribute("selectedCategory", category.trim());
             } else {
-                products = productService.getAllProducts();
+                ProductPage page = productService.getProductPage(cursor, size);
+                products = page.getProducts();
+                model.addAttribute("nextCursor", page.getNextCursor());
+                model.addAttribute("hasNext", page.isHasNext());
+                model.addAttribute("pageSize", ProductPage.clampPageSize(size));
             }
             
             model.addAttribute("products", products);
             model.addAttribute("productCount", products.size());
+            model.addAttribute("reviewSummaries", reviewAggregateStore.getSummaries(
+                    products.stream().map(Product::getId).toList()));
             
             if (sessionManager.isLoggedIn(request)) {
                 model.addAttribute("currentUser", sessionManager.getCurrentUser(request));
@@ -67,12 +106,9 @@ public class ProductController {
             }
             
             model.addAttribute("product", product);
+            model.addAttribute("reviewSummary", reviewAggregateStore.getSummary(id));
             
-            List<Product> relatedProducts = productService.findByCategory(product.getCategory())
-                .stream()
-                .filter(p -> !p.getId().equals(id))
-                .limit(4)
-                .toList();
+            List<Product> relatedProducts = productService.getRelatedProducts(id);
             model.addAttribute("relatedProducts", relatedProducts);
             
             if (sessionManager.isLoggedIn(request)) {
@@ -92,22 +128,56 @@ public class ProductController {
 
     @GetMapping("/api/all")
     @ResponseBody
-    public ResponseEntity<List<Product>> getAllProducts() {
+    public ResponseEntity<byte[]> getAllProducts(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
         try {
-            List<Product> products = productService.getAllProducts();
-            return ResponseEntity.ok(products);
+            return json(pageJson(productService.getProductPage(cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Full catalog as a gzip file of NDJSON, in id order. An interrupted pull resumes with
+     * ?after=<last id received>. Written synchronously so the async request timeout does not apply.
+     * The body is the .gz file itself (application/gzip), not a gzip transfer of NDJSON, so no
+     * Content-Encoding is sent and clients save it as-is whatever their Accept-Encoding.
+     */
+    @GetMapping("/api/export")
+    public void exportProducts(@RequestParam(required = false) Long after,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.ndjson.gz\"");
+        try (GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), 64 * 1024)) {
+            catalogExportService.exportActiveProducts(after, gzip);
+        }
+    }
+
+    @PostMapping(value = "/api/import", consumes = {"application/x-ndjson", "text/csv"})
+    @ResponseBody
+    public ResponseEntity<ProductImportResult> importProducts(HttpServletRequest request) throws IOException {
+        User user = sessionManager.getCurrentUser(request);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // there are no roles yet; catalog admins are listed by username, and nobody is by default
+        if (!importAdmins.contains(user.getUsername())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ProductImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? ProductImportService.Format.CSV : ProductImportService.Format.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+    }
+
     @GetMapping("/api/{id}")
     @ResponseBody
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getProduct(@PathVariable Long id) {
         try {
-            Product product = productService.getProductById(id);
+            byte[] product = productCatalogCache.getProductJson(id);
             if (product != null) {
-                return ResponseEntity.ok(product);
+                return json(product);
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -129,13 +199,13 @@ public class ProductController {
     
     @GetMapping("/api/search")
     @ResponseBody
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q) {
+    public ResponseEntity<byte[]> searchProducts(@RequestParam String q) {
         try {
             if (q == null || q.trim().isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
-            List<Product> products = productService.findByNameContainingIgnoreCase(q.trim());
-            return ResponseEntity.ok(products);
+            List<Product> products = productService.searchProducts(q.trim());
+            return json(productCatalogCache.toJsonArray(products));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -143,12 +213,31 @@ public class ProductController {
     
     @GetMapping("/api/category/{category}")
     @ResponseBody
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable String category) {
         try {
             List<Product> products = productService.findByCategory(category);
-            return ResponseEntity.ok(products);
+            return json(productCatalogCache.toJsonArray(products));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // API bodies are pre-serialized ProductView slices; the JSON converter is bypassed
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // {"products":[...],"nextCursor":...,"hasNext":...} - cursors are base64url, no escaping needed
+    private byte[] pageJson(ProductPage page) {
+        byte[] products = productCatalogCache.toJsonArray(page.getProducts());
+        String cursor = page.getNextCursor() == null ? "null" : "\"" + page.getNextCursor() + "\"";
+        ByteArrayOutputStream out = new ByteArrayOutputStream(products.length + 64);
+        out.writeBytes("{\"products\":".getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(products);
+        out.writeBytes((",\"nextCursor\":" + cursor + ",\"hasNext\":" + page.isHasNext() + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
 }
@@ -8,7 +8,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.ecommerce.dto.OrderHistoryPage;
+import com.ecommerce.dto.OrderLineView;
 import com.ecommerce.service.PurchaseHistoryService;
+import com.ecommerce.service.SessionManager;
 
 @Controller
 @RequestMapping("/PurchaseHistory")
@@ -17,24 +24,55 @@ public class PurchaseHistoryController {
     @Autowired
     private PurchaseHistoryService purchaseHistoryService;
 
-    //overview purchase history
-    @GetMapping("/{customerID}")
-    public String viewPurchaseHistory(@PathVariable Long id, Model model) {
-        model.addAttribute("orders", purchaseHistoryService.getOrdersByCustomer(id));
+    @Autowired
+    private SessionManager sessionManager;
+
+    //overview purchase history, always the logged-in customer's own
+    @GetMapping
+    public String viewPurchaseHistory(@RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer size,
+                                      HttpServletRequest request, Model model) {
+        Long customerId = sessionManager.getCurrentUserId(request);
+        if (customerId == null) {
+            return "redirect:/login";
+        }
+        OrderHistoryPage page;
+        try {
+            page = purchaseHistoryService.getOrderHistory(customerId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            page = purchaseHistoryService.getOrderHistory(customerId, null, size);
+        }
+        model.addAttribute("orders", page.getOrders());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("hasNext", page.isHasNext());
         return "PurchaseHistory"; //  templates/PurchaseHistory.html
     }
 
-    //search purchased product by name
+    //search the logged-in customer's purchased products by name
     @GetMapping("/search")
-    public String searchProduct(@RequestParam String keyword, Model model) {
-        model.addAttribute("results", purchaseHistoryService.searchProduct(keyword));
+    public String searchProduct(@RequestParam String keyword, HttpServletRequest request, Model model) {
+        Long customerId = sessionManager.getCurrentUserId(request);
+        if (customerId == null) {
+            return "redirect:/login";
+        }
+        model.addAttribute("keyword", keyword);
+        model.addAttribute("results", purchaseHistoryService.searchProduct(customerId, keyword));
         return "searchProductResult";
     }
 
-    //view details
+    //view details of one of the logged-in customer's orders
     @GetMapping("/details/{OrderId}")
-    public String viewOrderDetails(@PathVariable Long id, Model model) {
-        model.addAttribute("details", purchaseHistoryService.getOrderDetails(id));
+    public String viewOrderDetails(@PathVariable("OrderId") Long id, HttpServletRequest request, Model model) {
+        Long customerId = sessionManager.getCurrentUserId(request);
+        if (customerId == null) {
+            return "redirect:/login";
+        }
+        List<OrderLineView> details = purchaseHistoryService.getOrderDetails(customerId, id);
+        if (details.isEmpty()) {
+            return "redirect:/PurchaseHistory"; // not this customer's order, or no such order
+        }
+        model.addAttribute("orderId", id);
+        model.addAttribute("details", details);
         return "ViewDetails";
     }
 }
@@ -2,17 +2,27 @@ package com.ecommerce.controller;
 
 
 import com.ecommerce.dto.ReviewForm;
+import com.ecommerce.dto.ReviewImportResult;
+import com.ecommerce.dto.ReviewPage;
 import org.springframework.validation.BindingResult;
 import com.ecommerce.model.Product;
 import com.ecommerce.model.Customer;
+import com.ecommerce.model.User;
+import com.ecommerce.service.ReviewImportService;
+import com.ecommerce.service.SessionManager;
 import com.ecommerce.service.ShoppingService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/reviews")
@@ -21,17 +31,68 @@ public class ReviewController {
     @Autowired
     private ShoppingService shoppingService;
 
+    @Autowired
+    private ReviewImportService reviewImportService;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    // the same allow-list as the product import; bulk catalog writes share one set of admins
+    @Value("${product.import.admin-users:}")
+    private Set<String> importAdmins;
+
     @GetMapping("/product/{productId}")
-    public String showProductReviews(@PathVariable Long productId, Model model) {
+    public String showProductReviews(@PathVariable Long productId,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer size,
+                                     Model model) {
         Product product = shoppingService.getProductById(productId);
         ReviewForm reviewForm = new ReviewForm();
         reviewForm.setProductId(productId);
+        ReviewPage page;
+        try {
+            page = shoppingService.getReviewPage(productId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            // stale or tampered cursor: start again from the newest reviews
+            page = shoppingService.getReviewPage(productId, null, size);
+        }
         model.addAttribute("product", product);
-        model.addAttribute("reviews", shoppingService.getReviewsByProductId(productId));
+        model.addAttribute("reviews", page.getReviews());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("hasNext", page.isHasNext());
+        model.addAttribute("reviewSummary", shoppingService.getReviewSummary(productId));
         model.addAttribute("reviewForm", reviewForm);
         return "review-view";
     }
 
+    @GetMapping("/api/product/{productId}")
+    @ResponseBody
+    public ResponseEntity<ReviewPage> getProductReviews(@PathVariable Long productId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(shoppingService.getReviewPage(productId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Bulk import; the body is streamed, never buffered whole
+    @PostMapping(value = "/api/import", consumes = {"application/x-ndjson", "text/csv"})
+    @ResponseBody
+    public ResponseEntity<ReviewImportResult> importReviews(HttpServletRequest request) throws IOException {
+        User user = sessionManager.getCurrentUser(request);
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!importAdmins.contains(user.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+        ReviewImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? ReviewImportService.Format.CSV : ReviewImportService.Format.NDJSON;
+        return ResponseEntity.ok(reviewImportService.importReviews(request.getInputStream(), format));
+    }
+
     @PostMapping("/submit")
     public String submitReview(@Valid @ModelAttribute ReviewForm reviewForm, BindingResult bindingResult, Model model) {
         Product product = shoppingService.getProductById(reviewForm.getProductId());
@@ -267,6 +267,8 @@ public class UserController {
             return ResponseEntity.ok("Item added to cart");
         } catch (IllegalStateException e) {
             return ResponseEntity.status(401).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
         }
     }
     
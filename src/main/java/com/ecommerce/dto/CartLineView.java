@@ -0,0 +1,70 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * CartLineView DTO - Flat, read-only cart line loaded together with its product in one query
+ * Prices are held in integer cents so totals are exact
+ */
+public class CartLineView {
+
+    private final Long cartItemId;
+    private final Long productId;
+    private final String productName;
+    private final String productDescription;
+    private final long unitPriceCents;
+    private final int quantity;
+
+    // Used by the JPQL constructor expression in CartItemRepository
+    public CartLineView(Long cartItemId, Long productId, String productName, String productDescription,
+                        BigDecimal price, int quantity) {
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.productName = productName;
+        this.productDescription = productDescription;
+        this.unitPriceCents = toCents(price);
+        this.quantity = quantity;
+    }
+
+    public static long toCents(BigDecimal price) {
+        return price == null ? 0L : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // Getters
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getProductDescription() {
+        return productDescription;
+    }
+
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getSubtotalCents() {
+        return unitPriceCents * quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return BigDecimal.valueOf(unitPriceCents, 2);
+    }
+
+    public BigDecimal getSubtotal() {
+        return BigDecimal.valueOf(getSubtotalCents(), 2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Order;
+
+import java.math.BigDecimal;
+
+/**
+ * OrderLineView DTO - Flat order detail line loaded with its product and order in one join
+ */
+public class OrderLineView {
+
+    private final Long orderId;
+    private final Long productId;
+    private final String productName;
+    private final String productPicture;
+    private final double unitPrice;
+    private final int quantity;
+    private final Order.OrderStatus status;
+
+    // Used by the JPQL constructor expression in OrderItemRepository
+    public OrderLineView(Long orderId, Long productId, String productName, String productPicture,
+                         double unitPrice, int quantity, Order.OrderStatus status) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.productPicture = productPicture;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.status = status;
+    }
+
+    // Getters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getProductPicture() {
+        return productPicture;
+    }
+
+    public double getUnitPrice() {
+        return unitPrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return BigDecimal.valueOf(unitPrice).multiply(BigDecimal.valueOf(quantity));
+    }
+}
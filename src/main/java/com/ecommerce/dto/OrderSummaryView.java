@@ -0,0 +1,59 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * OrderSummaryView DTO - One purchase-history row with its item count
+ * The page of orders is read first and the counts for just that page are added after,
+ * so listing orders never loads OrderItem entities
+ */
+public class OrderSummaryView {
+
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+    private final Order.OrderStatus status;
+    private final long itemCount;
+    private final BigDecimal totalAmount;
+
+    // Used by the JPQL constructor expressions in OrderRepository; the item count is filled in by withItemCount
+    public OrderSummaryView(Long orderId, LocalDateTime orderDate, Order.OrderStatus status, BigDecimal totalAmount) {
+        this(orderId, orderDate, status, 0L, totalAmount);
+    }
+
+    public OrderSummaryView(Long orderId, LocalDateTime orderDate, Order.OrderStatus status,
+                            Long itemCount, BigDecimal totalAmount) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.itemCount = itemCount != null ? itemCount : 0L;
+        this.totalAmount = totalAmount;
+    }
+
+    public OrderSummaryView withItemCount(long itemCount) {
+        return new OrderSummaryView(orderId, orderDate, status, itemCount, totalAmount);
+    }
+
+    // Getters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
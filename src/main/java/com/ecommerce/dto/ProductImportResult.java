@@ -0,0 +1,95 @@
+package com.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ProductImportResult DTO - Outcome of a bulk catalog import
+ * Counts cover every line; only the first MAX_ERRORS rejected lines are described.
+ * Each pipeline stage reports the rows it handled and the time spent in it.
+ */
+public class ProductImportResult {
+
+    public static final int MAX_ERRORS = 100;
+
+    private long inserted;
+    private long updated;
+    private long rejected;
+    private int batches;
+    private final List<String> errors = new ArrayList<>();
+
+    private final Stage parse = new Stage();
+    private final Stage validate = new Stage();
+    private final Stage write = new Stage();
+
+    public void addBatch(long insertedCount, long updatedCount) {
+        inserted += insertedCount;
+        updated += updatedCount;
+        batches++;
+    }
+
+    public void reject(long lineNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    // Getters
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public Stage getParse() {
+        return parse;
+    }
+
+    public Stage getValidate() {
+        return validate;
+    }
+
+    public Stage getWrite() {
+        return write;
+    }
+
+    /**
+     * Rows handled by one stage and the wall time spent in it
+     */
+    public static class Stage {
+        private long rows;
+        private long nanos;
+
+        public void record(long rowCount, long elapsedNanos) {
+            rows += rowCount;
+            nanos += elapsedNanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getMillis() {
+            return nanos / 1_000_000;
+        }
+
+        public long getRowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1_000_000_000L / nanos;
+        }
+    }
+}
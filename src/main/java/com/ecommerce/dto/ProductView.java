@@ -0,0 +1,35 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ProductView - Flat, immutable read model of a product for the catalog API
+ * Carries no JPA associations, so serializing it can never trigger a lazy load
+ */
+public record ProductView(Long id, String name, String description, String imageName, String category,
+                          BigDecimal price, String brand, Integer stockQuantity, Boolean isActive,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getDescription(),
+                product.getImageName(), product.getCategory(), product.getPrice(), product.getBrand(),
+                product.getStockQuantity(), product.getIsActive(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    /**
+     * A new detached Product with this view's columns; each caller gets its own copy to change
+     */
+    public Product toProduct() {
+        Product product = new Product(name, description, category, price, brand);
+        product.setId(id);
+        product.setImageName(imageName);
+        product.setStockQuantity(stockQuantity);
+        product.setIsActive(isActive);
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(updatedAt);
+        return product;
+    }
+}
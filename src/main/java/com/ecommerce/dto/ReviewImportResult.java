@@ -0,0 +1,47 @@
+package com.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReviewImportResult DTO - Outcome of a bulk review import
+ * Only the first MAX_ERRORS rejected lines are described; the counts cover every line
+ */
+public class ReviewImportResult {
+
+    public static final int MAX_ERRORS = 100;
+
+    private long imported;
+    private long rejected;
+    private int batches;
+    private final List<String> errors = new ArrayList<>();
+
+    public void addImported(long count) {
+        imported += count;
+        batches++;
+    }
+
+    public void reject(long lineNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    // Getters
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.dto;
+
+import java.util.Arrays;
+
+/**
+ * ReviewSummary DTO - Rating count, average and 1-5 histogram for one product
+ * Snapshot of the in-memory aggregate; never backed by the reviews table
+ */
+public class ReviewSummary {
+
+    private static final ReviewSummary EMPTY = new ReviewSummary(null, 0L, 0L, new long[5]);
+
+    private final Long productId;
+    private final long count;
+    private final long ratingSum;
+    private final long[] histogram; // index 0 = one star ... index 4 = five stars
+
+    public ReviewSummary(Long productId, long count, long ratingSum, long[] histogram) {
+        this.productId = productId;
+        this.count = count;
+        this.ratingSum = ratingSum;
+        this.histogram = histogram;
+    }
+
+    public static ReviewSummary empty(Long productId) {
+        return productId == null ? EMPTY : new ReviewSummary(productId, 0L, 0L, new long[5]);
+    }
+
+    // Getters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : Math.round(ratingSum * 10.0 / count) / 10.0;
+    }
+
+    public long[] getHistogram() {
+        return Arrays.copyOf(histogram, histogram.length);
+    }
+
+    public long getStars(int rating) {
+        return rating < 1 || rating > 5 ? 0L : histogram[rating - 1];
+    }
+}
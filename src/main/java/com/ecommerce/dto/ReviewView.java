@@ -0,0 +1,46 @@
+package com.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReviewView DTO - Flat, read-only review row with the reviewer's name already joined in
+ * Keeps the lazy Product and Customer associations out of the review templates
+ */
+public class ReviewView {
+
+    private final Long id;
+    private final Integer rating;
+    private final String comment;
+    private final LocalDateTime createdTime;
+    private final String reviewerName;
+
+    // Used by the JPQL constructor expressions in ReviewRepository
+    public ReviewView(Long id, Integer rating, String comment, LocalDateTime createdTime, String reviewerName) {
+        this.id = id;
+        this.rating = rating;
+        this.comment = comment;
+        this.createdTime = createdTime;
+        this.reviewerName = reviewerName;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public LocalDateTime getCreatedTime() {
+        return createdTime;
+    }
+
+    public String getReviewerName() {
+        return reviewerName;
+    }
+}
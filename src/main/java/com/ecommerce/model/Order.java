@@ -16,7 +16,10 @@ import java.util.List;
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_date", columnList = "order_date"),
     @Index(name = "idx_user_id", columnList = "user_id"),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_user_order_date", columnList = "user_id, order_date")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_orders_idempotency_key", columnNames = "idempotency_key")
 })
 public class Order {
     
@@ -48,6 +51,10 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Checkout submission key; the unique constraint rejects a second order for the same submission
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+    
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -152,6 +159,14 @@ public class Order {
         this.updatedAt = updatedAt;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     public User getUser() {
         return user;
     }
@@ -35,6 +35,18 @@ public class Payment {
 	
 	private double totalAmount;
 
+	// generated when the form is rendered, posted back as a hidden field
+	@Size(max=64, message="Invalid checkout request.")
+	private String idempotencyKey;
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public void setIdempotencyKey(String idempotencyKey) {
+		this.idempotencyKey = idempotencyKey;
+	}
+
 	public double getTotalAmount() {
 		return totalAmount;
 	}
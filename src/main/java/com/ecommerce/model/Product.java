@@ -1,5 +1,6 @@
 package com.ecommerce.model;
 
+import com.ecommerce.service.ProductIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -15,6 +16,7 @@ import java.util.List;
  * Optimized for lean baseline development
  */
 @Entity
+@EntityListeners(ProductIndexListener.class)
 @Table(name = "products", indexes = {
     @Index(name = "idx_category", columnList = "category"),
     @Index(name = "idx_name", columnList = "name"),
@@ -9,7 +9,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+    // InnoDB appends the primary key, so this also covers the (created_time, id) keyset order
+    @Index(name = "idx_reviews_product_created", columnList = "product_id, created_time")
+})
 // @NoArgsConstructor
 // @AllArgsConstructor
 public class Review {
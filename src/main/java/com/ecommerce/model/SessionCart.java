@@ -0,0 +1,194 @@
+package com.ecommerce.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * SessionCart - Session-scoped shopping cart kept in parallel primitive arrays
+ * Running total (in cents) and item count are maintained on every change, so reads are O(1)
+ */
+public class SessionCart implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private long[] unitPriceCents = new long[INITIAL_CAPACITY];
+    private String[] productNames = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private long totalCents;
+    private int itemCount;
+
+    public SessionCart() {}
+
+    public SessionCart(SessionCart other) {
+        this.productIds = Arrays.copyOf(other.productIds, Math.max(INITIAL_CAPACITY, other.size));
+        this.quantities = Arrays.copyOf(other.quantities, Math.max(INITIAL_CAPACITY, other.size));
+        this.unitPriceCents = Arrays.copyOf(other.unitPriceCents, Math.max(INITIAL_CAPACITY, other.size));
+        this.productNames = Arrays.copyOf(other.productNames, Math.max(INITIAL_CAPACITY, other.size));
+        this.size = other.size;
+        this.totalCents = other.totalCents;
+        this.itemCount = other.itemCount;
+    }
+
+    // ============== MUTATORS ==============
+
+    /**
+     * Adds a line, or replaces the quantity and price of an existing line for the same product
+     */
+    public void put(long productId, String productName, long priceCents, int quantity) {
+        int index = indexOf(productId);
+        if (index >= 0) {
+            totalCents -= unitPriceCents[index] * quantities[index];
+            itemCount -= quantities[index];
+        } else {
+            ensureCapacity(size + 1);
+            index = size++;
+            productIds[index] = productId;
+        }
+        productNames[index] = productName;
+        unitPriceCents[index] = priceCents;
+        quantities[index] = quantity;
+        totalCents += priceCents * quantity;
+        itemCount += quantity;
+    }
+
+    public boolean remove(long productId) {
+        int index = indexOf(productId);
+        if (index < 0) {
+            return false;
+        }
+        totalCents -= unitPriceCents[index] * quantities[index];
+        itemCount -= quantities[index];
+
+        // move the last line into the hole; line order is not significant
+        int last = --size;
+        productIds[index] = productIds[last];
+        quantities[index] = quantities[last];
+        unitPriceCents[index] = unitPriceCents[last];
+        productNames[index] = productNames[last];
+        productNames[last] = null;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(productNames, 0, size, null);
+        size = 0;
+        totalCents = 0;
+        itemCount = 0;
+    }
+
+    // ============== ACCESSORS ==============
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public double getTotal() {
+        return totalCents / 100.0;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public long getProductId(int index) {
+        return productIds[index];
+    }
+
+    public String getProductName(int index) {
+        return productNames[index];
+    }
+
+    public int getQuantity(int index) {
+        return quantities[index];
+    }
+
+    public long getUnitPriceCents(int index) {
+        return unitPriceCents[index];
+    }
+
+    public boolean contains(long productId) {
+        return indexOf(productId) >= 0;
+    }
+
+    /**
+     * Line view for JSON responses and templates; allocates, so keep it off hot paths
+     */
+    public List<Line> getItems() {
+        List<Line> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Line(productIds[i], productNames[i], unitPriceCents[i] / 100.0, quantities[i],
+                    unitPriceCents[i] * quantities[i] / 100.0));
+        }
+        return items;
+    }
+
+    public record Line(long productId, String productName, double price, int quantity, double subtotal) {}
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // carts are small, a linear scan over a long[] beats hashing boxed keys
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= productIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        unitPriceCents = Arrays.copyOf(unitPriceCents, capacity);
+        productNames = Arrays.copyOf(productNames, capacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SessionCart)) return false;
+        SessionCart other = (SessionCart) o;
+        if (size != other.size || totalCents != other.totalCents || itemCount != other.itemCount) return false;
+        for (int i = 0; i < size; i++) {
+            int j = other.indexOf(productIds[i]);
+            if (j < 0 || quantities[i] != other.quantities[j] || unitPriceCents[i] != other.unitPriceCents[j]
+                    || !Objects.equals(productNames[i], other.productNames[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, totalCents, itemCount);
+    }
+
+    @Override
+    public String toString() {
+        return "SessionCart{" +
+                "lines=" + size +
+                ", itemCount=" + itemCount +
+                ", totalCents=" + totalCents +
+                '}';
+    }
+}
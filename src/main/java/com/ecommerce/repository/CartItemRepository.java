@@ -2,20 +2,42 @@
 package com.ecommerce.repository;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 // import sg.edu.nus.cart.model.CartItem;
+import com.ecommerce.dto.CartLineView;
 import com.ecommerce.model.CartItem;
 
 //Goh Ching Tard
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
-	@Query("Select c from CartItem c where c.cart.customer.id = :customerId")
+	@Query("Select c from CartItem c join fetch c.product where c.cart.customer.id = :customerId")
 	public ArrayList<CartItem> ShowItemsInCart(@Param("customerId") Long customerId);
 
+	//read model for cart pages: one query, only the columns the views need
+	@Query("Select new com.ecommerce.dto.CartLineView(c.id, p.id, p.name, p.description, p.price, c.quantity) "
+			+ "from CartItem c join c.product p where c.cart.customer.id = :customerId")
+	public List<CartLineView> findCartLines(@Param("customerId") Long customerId);
+
+	@Modifying
+	@Query("Update CartItem c set c.quantity = :quantity where c.id = :cartItemId")
+	public int updateQuantity(@Param("cartItemId") Long cartItemId, @Param("quantity") int quantity);
+
+	//relative increment, so concurrent adds on any node are never lost
+	@Modifying
+	@Query("Update CartItem c set c.quantity = c.quantity + :delta where c.id = :cartItemId")
+	public int addQuantity(@Param("cartItemId") Long cartItemId, @Param("delta") int delta);
+
+	//bulk delete of one cart's lines, no entities are loaded
+	@Modifying
+	@Query("Delete from CartItem c where c.cart.id = :cartId")
+	public int deleteByCartId(@Param("cartId") Long cartId);
+
 	@Query("Select c from CartItem c where c.product.id = :productId and c.cart.id = :cartId")
 	public CartItem checkItemInCart(@Param("productId") Long productId,
 			@Param("cartId") Long cartId);
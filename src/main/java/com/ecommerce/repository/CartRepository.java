@@ -3,6 +3,8 @@ package com.ecommerce.repository;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 // import sg.edu.nus.cart.model.Cart;
 import com.ecommerce.model.Cart;
 
@@ -11,4 +13,12 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 	
 	public Optional<Cart> findByCustomer_Id(Long customer_id);
 
+	//loads the cart with its items and products in one query, for the cart cache
+	@Query("Select distinct c from Cart c left join fetch c.cartItems i left join fetch i.product "
+			+ "where c.customer.id = :customerId")
+	public Optional<Cart> findByCustomerIdWithItems(@Param("customerId") Long customerId);
+
+	@Query("Select c.id from Cart c where c.customer.id = :customerId")
+	public Optional<Long> findIdByCustomerId(@Param("customerId") Long customerId);
+
 }
@@ -1,7 +1,12 @@
 //package name here
 package com.ecommerce.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 // import sg.edu.nus.cart.model.Customer;
 import com.ecommerce.model.Customer;
@@ -10,4 +15,7 @@ import com.ecommerce.model.Customer;
 //Goh Ching Tard
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+	//which of the given ids exist, for batched lookups
+	@Query("Select c.id from Customer c where c.id in :ids")
+	public List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,20 +1,59 @@
 package com.ecommerce.repository;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ecommerce.dto.OrderLineView;
+import com.ecommerce.model.Order;
 import com.ecommerce.model.OrderItem;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long>{
-	//search by product name
-	@Query("Select p from OrderItem as p where p.name like CONCAT('%',:k,'%') ")
-	public ArrayList<OrderItem> SearchOrderItemByName(@Param("k") String keyword);
+	//best sellers by units sold, used to build the featured products snapshot
+	@Query("Select oi.product.id from OrderItem oi group by oi.product.id order by sum(oi.quantity) desc")
+	public List<Long> findTopSellingProductIds(Pageable pageable);
+
+	//(product, partner) pairs bought in the same order: only the top :perProduct partners per product
+	//leave the database, ranked by how many orders they share
+	@Query(value = "select product_id, partner_id from ("
+			+ "select a.product_id, b.product_id as partner_id, row_number() over ("
+			+ "partition by a.product_id order by count(*) desc, b.product_id) as partner_rank "
+			+ "from order_item a join order_item b on a.order_id = b.order_id and a.product_id <> b.product_id "
+			+ "group by a.product_id, b.product_id) ranked "
+			+ "where partner_rank <= :perProduct order by product_id, partner_rank", nativeQuery = true)
+	public List<Object[]> findCoPurchasedProductPairs(@Param("perProduct") int perProduct);
+
+	//order details: lines, products and order status in a single join
+	@Query("Select new com.ecommerce.dto.OrderLineView(o.id, p.id, p.name, p.imageName, oi.unitPrice, oi.quantity, o.status) "
+			+ "from OrderItem oi join oi.order o join oi.product p where o.id = :orderId and o.user.id = :userId "
+			+ "order by oi.id")
+	public List<OrderLineView> findOrderLines(@Param("orderId") Long orderId, @Param("userId") Long userId);
+
+	//(orderId, item count) for one page of purchase history; grouped after the page is cut, not before
+	@Query("Select oi.order.id, sum(oi.quantity) from OrderItem oi where oi.order.id in :orderIds group by oi.order.id")
+	public List<Object[]> countItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+	//(customerId, productId, productName) for every purchase, to seed the purchased-product index
+	@Query("Select distinct o.user.id, p.id, p.name from OrderItem oi join oi.order o join oi.product p")
+	public List<Object[]> findPurchasedProducts();
+
+	//a customer's order lines for products already matched by the purchased-product index
+	@Query("Select new com.ecommerce.dto.OrderLineView(o.id, p.id, p.name, p.imageName, oi.unitPrice, oi.quantity, o.status) "
+			+ "from OrderItem oi join oi.order o join oi.product p "
+			+ "where o.user.id = :userId and p.id in :productIds order by o.orderDate desc, oi.id")
+	public List<OrderLineView> findPurchasedLines(@Param("userId") Long userId,
+			@Param("productIds") Collection<Long> productIds);
+
+	//(orderId, idempotencyKey, productId, quantity) for every line of a checkout still waiting on its payment
+	@Query("Select o.id, o.idempotencyKey, oi.product.id, oi.quantity from OrderItem oi join oi.order o "
+			+ "where o.status = :status and o.idempotencyKey is not null")
+	public List<Object[]> findLinesByOrderStatus(@Param("status") Order.OrderStatus status);
 
 
 }
@@ -1,14 +1,38 @@
 // package name here
 package com.ecommerce.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 // import sg.edu.nus.caproject.model.Order;
+import com.ecommerce.dto.OrderSummaryView;
 import com.ecommerce.model.Order;
 
 public interface OrderRepository extends JpaRepository <Order, Long> {
 	//return all Orders matching customerID 
 	List<Order> findByCustomerId(Long customerId);
 
+	Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+	//an order only if it belongs to this user
+	Optional<Order> findByIdAndUser_Id(Long id, Long userId);
+
+	//purchase history, newest first; a page of orders only, walks idx_user_order_date (user_id, order_date)
+	@Query("Select new com.ecommerce.dto.OrderSummaryView(o.id, o.orderDate, o.status, o.totalAmount) "
+			+ "from Order o where o.user.id = :userId "
+			+ "order by o.orderDate desc, o.id desc")
+	List<OrderSummaryView> findOrderSummaries(@Param("userId") Long userId, Pageable pageable);
+
+	@Query("Select new com.ecommerce.dto.OrderSummaryView(o.id, o.orderDate, o.status, o.totalAmount) "
+			+ "from Order o where o.user.id = :userId "
+			+ "and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id)) "
+			+ "order by o.orderDate desc, o.id desc")
+	List<OrderSummaryView> findOrderSummariesBefore(@Param("userId") Long userId,
+			@Param("orderDate") LocalDateTime orderDate, @Param("id") Long id, Pageable pageable);
+
 }
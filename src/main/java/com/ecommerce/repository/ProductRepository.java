@@ -1,16 +1,21 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * ProductRepository - Optimized repository for Product entity
@@ -25,6 +30,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p WHERE p.isActive = true")
     Page<Product> findAllActiveProducts(Pageable pageable);
+    
+    // Keyset pagination: seeks past the last id seen instead of counting an OFFSET
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Product> findActiveProductsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Forward-only export stream; MIN_VALUE makes Connector/J stream rows instead of buffering the result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    Stream<Product> streamActiveProductsAfter(@Param("afterId") Long afterId);
 
     // Search and filter methods
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
@@ -51,6 +69,18 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT DISTINCT p.brand FROM Product p WHERE p.isActive = true AND p.brand IS NOT NULL ORDER BY p.brand")
     List<String> findAllBrands();
     
+    // Lightweight (id, category, brand) rows for building the related products index
+    @Query("SELECT p.id, p.category, p.brand FROM Product p WHERE p.isActive = true ORDER BY p.id")
+    List<Object[]> findActiveProductKeys();
+    
+    // Which of the given ids exist; one IN query per batch during bulk imports
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // (id, name, brand) rows for the given names; bulk import reports which feed rows were updates
+    @Query("SELECT p.id, p.name, p.brand FROM Product p WHERE p.name IN :names ORDER BY p.id")
+    List<Object[]> findKeysByNames(@Param("names") Collection<String> names);
+    
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.reviews WHERE p.id = :id AND p.isActive = true")
     Optional<Product> findByIdWithReviews(@Param("id") Long id);
     
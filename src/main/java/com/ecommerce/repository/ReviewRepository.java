@@ -3,13 +3,36 @@
 package com.ecommerce.repository;
 
 // import sg.nus.iss.shoppingCart.model.Review;
+import com.ecommerce.dto.ReviewView;
 import com.ecommerce.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 	// Query reviews by product ID, ordered by creation time in descending order (latest reviews first)
     List<Review> findByProductIdOrderByCreatedTimeDesc(Long productId);
+
+    // Keyset review feed, newest first; served by idx_reviews_product_created (product_id, created_time, id)
+    @Query("SELECT new com.ecommerce.dto.ReviewView(r.id, r.rating, r.comment, r.createdTime, c.userName) " +
+           "FROM Review r JOIN r.customer c WHERE r.product.id = :productId " +
+           "ORDER BY r.createdTime DESC, r.id DESC")
+    List<ReviewView> findReviewFeed(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT new com.ecommerce.dto.ReviewView(r.id, r.rating, r.comment, r.createdTime, c.userName) " +
+           "FROM Review r JOIN r.customer c WHERE r.product.id = :productId " +
+           "AND (r.createdTime < :createdTime OR (r.createdTime = :createdTime AND r.id < :id)) " +
+           "ORDER BY r.createdTime DESC, r.id DESC")
+    List<ReviewView> findReviewFeedBefore(@Param("productId") Long productId,
+                                          @Param("createdTime") LocalDateTime createdTime,
+                                          @Param("id") Long id, Pageable pageable);
+
+    // Rows of (productId, rating, count) used to seed the review aggregates
+    @Query("SELECT r.product.id, r.rating, COUNT(r) FROM Review r GROUP BY r.product.id, r.rating")
+    List<Object[]> countRatingsByProduct();
 }
\ No newline at end of file
@@ -20,8 +20,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Basic finder methods
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    User findByUsernameAndPassword(String username, String password);
-    User findByEmailAndPassword(String email, String password);
     
     // Advanced queries
     @Query("SELECT u FROM User u WHERE u.username = :username OR u.email = :username")
@@ -0,0 +1,162 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CartCache - Immutable cart snapshots keyed by customer id
+ * Bounded LRU with a time-to-live. Snapshots hold ids and quantities only, never entities, so
+ * nothing is shared between transactions; writers evict at once and publish the new snapshot
+ * after commit, so a rollback can never leave the cache ahead of the database
+ */
+@Component
+public class CartCache {
+
+    private final Map<Long, Entry> carts;
+    // cartId -> customerId, so order completion can find the cached cart from its lines
+    private final Map<Long, Long> customersByCart = new HashMap<>();
+    private final long ttlMillis;
+
+    public CartCache(@Value("${cart.cache.capacity:10000}") int capacity,
+                     @Value("${cart.cache.ttl-ms:1800000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.carts = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > capacity) {
+                    customersByCart.remove(eldest.getValue().cart.cartId());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized CartSnapshot get(Long customerId) {
+        if (customerId == null) {
+            return null;
+        }
+        Entry entry = carts.get(customerId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            invalidate(customerId);
+            return null;
+        }
+        return entry.cart;
+    }
+
+    /**
+     * Evicts now and caches the snapshot once the surrounding transaction commits
+     */
+    public void putAfterCommit(Long customerId, CartSnapshot cart) {
+        invalidate(customerId);
+        afterCommit(() -> put(customerId, cart));
+    }
+
+    /**
+     * The cart's lines were deleted in bulk; once committed the cached cart stays warm, just empty
+     */
+    public void clearItemsAfterCommit(Long cartId) {
+        Long customerId;
+        synchronized (this) {
+            customerId = customersByCart.get(cartId);
+        }
+        if (customerId == null) {
+            return;
+        }
+        invalidate(customerId);
+        afterCommit(() -> put(customerId, new CartSnapshot(cartId, Map.of())));
+    }
+
+    public synchronized void invalidate(Long customerId) {
+        Entry entry = carts.remove(customerId);
+        if (entry != null) {
+            customersByCart.remove(entry.cart.cartId());
+        }
+    }
+
+    public void clearAfterCommit() {
+        clear();
+        afterCommit(this::clear);
+    }
+
+    public synchronized void clear() {
+        carts.clear();
+        customersByCart.clear();
+    }
+
+    public synchronized int size() {
+        return carts.size();
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private synchronized void put(Long customerId, CartSnapshot cart) {
+        if (customerId == null || cart == null || cart.cartId() == null) {
+            return;
+        }
+        carts.put(customerId, new Entry(cart, System.currentTimeMillis() + ttlMillis));
+        customersByCart.put(cart.cartId(), customerId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Entry(CartSnapshot cart, long expiresAt) {}
+
+    /**
+     * A cart as last committed: its id and, per product, the line id and quantity
+     */
+    public record CartSnapshot(Long cartId, Map<Long, Line> lines) {
+
+        public CartSnapshot {
+            lines = Map.copyOf(lines);
+        }
+
+        public static CartSnapshot of(Cart cart) {
+            Map<Long, Line> lines = new HashMap<>();
+            for (CartItem item : cart.getCartItems()) {
+                if (item.getProduct() != null) {
+                    lines.put(item.getProduct().getId(), new Line(item.getId(), item.getQuantity()));
+                }
+            }
+            return new CartSnapshot(cart.getId(), lines);
+        }
+
+        public CartSnapshot withLine(Long productId, Line line) {
+            Map<Long, Line> updated = new HashMap<>(lines);
+            updated.put(productId, line);
+            return new CartSnapshot(cartId, updated);
+        }
+
+        public int totalQuantity() {
+            int total = 0;
+            for (Line line : lines.values()) {
+                total += line.quantity();
+            }
+            return total;
+        }
+
+        public record Line(Long itemId, int quantity) {}
+    }
+}
@@ -3,6 +3,11 @@ package com.ecommerce.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 import jakarta.transaction.Transactional;
 // import sg.edu.nus.cart.interfacemethods.CartInterface;
@@ -13,9 +18,14 @@ import jakarta.transaction.Transactional;
 
 import com.ecommerce.service.CartInterface;
 import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
 import com.ecommerce.model.Customer;
+import com.ecommerce.repository.CartItemRepository;
 import com.ecommerce.repository.CartRepository;
 import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CartCache.CartSnapshot;
+import com.ecommerce.service.CartCache.CartSnapshot.Line;
 
 
 //Goh Ching Tard
@@ -35,18 +45,34 @@ public class CartImplementation implements CartInterface {
 	
 	@Autowired
 	CustomerInterface customerService;
+
+	@Autowired
+	ProductRepository productRepo;
+
+	@Autowired
+	CartCache cartCache;
+
+	// striped by customer id: two requests for one customer never build two carts or race on a line
+	private final ReentrantLock[] customerLocks = new ReentrantLock[64];
+	{
+		for (int i = 0; i < customerLocks.length; i++) {
+			customerLocks[i] = new ReentrantLock();
+		}
+	}
 	
 	@Override
 	@Transactional
 	public Cart findCart(Long customerId) {
 		
-	    Cart customerCart = cartRepo.findByCustomer_Id(customerId).orElse(null);
+		// always a managed entity of this transaction; the cache only holds immutable snapshots
+	    Cart customerCart = cartRepo.findByCustomerIdWithItems(customerId).orElse(null);
 	        if (customerCart == null) {
 	        	Cart newCart = new Cart();
 	    	    Customer customer = customerRepo.findById(customerId).orElse(null);
 	    		newCart.setCustomer(customer);
 	        	return newCart;
 	        }
+	        cartCache.putAfterCommit(customerId, CartSnapshot.of(customerCart));
 	        return customerCart;
 	}
 
@@ -70,16 +96,89 @@ public class CartImplementation implements CartInterface {
 	@Override
 	@Transactional
 	public boolean updateCart(Cart cart) {
-		if (cartRepo.save(cart) != null)
+		Cart savedCart = cartRepo.save(cart);
+		if (savedCart != null) {
+			// the saved state becomes the cached cart once it is committed
+			if (savedCart.getCustomer() != null) {
+				cartCache.putAfterCommit(savedCart.getCustomer().getId(), CartSnapshot.of(savedCart));
+			}
 			return true;
+		}
 		else
 			return false;
 	}
 
+	@Override
+	@Transactional
+	public int addToCart(Long customerId, Long productId, Integer quantity) {
+
+		// held until the transaction completes, so the next request for this customer sees the committed cart
+		lockCustomer(customerId);
+
+		CartSnapshot cart = cartCache.get(customerId);
+		boolean cached = cart != null;
+		if (!cached) {
+			cart = cartRepo.findByCustomerIdWithItems(customerId).map(CartSnapshot::of).orElse(null);
+		}
+
+		if (cart == null) { // first item for this customer, the cart row is created with it
+			Cart newCart = new Cart();
+			newCart.setCustomer(customerRepo.getReferenceById(customerId));
+			CartItem cartitem = new CartItem();
+			cartitem.setQuantity(quantity);
+			cartitem.setProduct(productRepo.getReferenceById(productId));
+			newCart.addItem(cartitem);
+			cartRepo.save(newCart);
+			return publish(customerId, new CartSnapshot(newCart.getId(), Map.of())
+					.withLine(productId, new Line(cartitem.getId(), quantity)));
+		}
+
+		// the snapshot answers the "already in cart" check; the increment itself is applied by the database,
+		// and the customer lock means no other add on this node moved the line since the snapshot
+		Line line = cart.lines().get(productId);
+		if (line != null && cartItemRepository.addQuantity(line.itemId(), quantity) == 1) {
+			return publish(customerId, cart.withLine(productId, new Line(line.itemId(), line.quantity() + quantity)));
+		}
+
+		// a cached snapshot can miss a line added on another node; inserting it again would hit
+		// uk_cart_item_product and roll the whole request back, so look it up first
+		if (cached) {
+			CartItem existing = cartItemRepository.checkItemInCart(productId, cart.cartId());
+			if (existing != null) {
+				existing.setQuantity(existing.getQuantity() + quantity);
+				return publish(customerId, cartRepo.findByCustomerIdWithItems(customerId).map(CartSnapshot::of).orElseThrow());
+			}
+		}
+
+		// a reference is enough for the foreign key; no product read on the way in
+		CartItem cartitem = new CartItem();
+		cartitem.setQuantity(quantity);
+		cartitem.setProduct(productRepo.getReferenceById(productId));
+		cartitem.setCart(cartRepo.getReferenceById(cart.cartId()));
+		cartItemRepository.save(cartitem);
+		return publish(customerId, cart.withLine(productId, new Line(cartitem.getId(), quantity)));
+	}
+
 	@Override
 	@Transactional
 	public void clearCart() {
-		cartRepo.deleteAll();
+		// bulk deletes; lines first because deleteAllInBatch skips the cascade
+		cartItemRepository.deleteAllInBatch();
+		cartRepo.deleteAllInBatch();
+		cartCache.clearAfterCommit();
+	}
+
+	@Override
+	@Transactional
+	public void clearCart(Long customerId) {
+		CartSnapshot cachedCart = cartCache.get(customerId);
+		Long cartId = cachedCart != null ? cachedCart.cartId() : cartRepo.findIdByCustomerId(customerId).orElse(null);
+		if (cartId == null) {
+			return;
+		}
+		// the cart row stays; only this customer's lines go, in one statement
+		cartItemRepository.deleteByCartId(cartId);
+		cartCache.clearItemsAfterCommit(cartId);
 	}
 
 	/* shir's code
@@ -97,4 +196,26 @@ public class CartImplementation implements CartInterface {
 	}
 	*/
 	
+	// ============== PRIVATE HELPER METHODS ==============
+
+	private int publish(Long customerId, CartSnapshot cart) {
+		cartCache.putAfterCommit(customerId, cart);
+		return cart.totalQuantity();
+	}
+
+	private void lockCustomer(Long customerId) {
+		ReentrantLock lock = customerLocks[Math.floorMod(customerId.hashCode(), customerLocks.length)];
+		lock.lock();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			lock.unlock(); // no transaction to wait for, the database writes are already done one by one
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				lock.unlock();
+			}
+		});
+	}
+	
 }
@@ -8,6 +8,7 @@ import com.ecommerce.model.Cart;
 public interface CartInterface {
 	public Cart findCart(Long customerId);
 	public boolean updateCart(Cart cart);
+	public int addToCart(Long customerId, Long productId, Integer quantity);
 	public void clearCart();
 
 	//below are shirley's codes, had some conflicts with george's one so had to change
@@ -12,6 +12,7 @@ import jakarta.transaction.Transactional;
 // import sg.edu.nus.cart.repository.CartItemRepository;
 
 import com.ecommerce.service.CartItemInterface;
+import com.ecommerce.dto.CartLineView;
 import com.ecommerce.model.CartItem;
 import com.ecommerce.repository.CartItemRepository;
 
@@ -23,6 +24,9 @@ public class CartItemImplementation implements CartItemInterface {
 	@Autowired
 	CartItemRepository cartitemRepo;
 
+	@Autowired
+	CartCache cartCache;
+
 	@Override
 	@Transactional
 	public boolean addToCartItem(CartItem cartitem) {
@@ -53,7 +57,18 @@ public class CartItemImplementation implements CartItemInterface {
 	@Override
 	@Transactional
 	public void clearCartItems() {
-		cartitemRepo.deleteAll();
+		cartitemRepo.deleteAllInBatch();
+		cartCache.clearAfterCommit();
+	}
+
+	@Override
+	@Transactional
+	public void clearCartItems(Long cartId) {
+		if (cartId == null) {
+			return;
+		}
+		cartitemRepo.deleteByCartId(cartId);
+		cartCache.clearItemsAfterCommit(cartId);
 	}
 
 	//below are shirley's codes
@@ -61,11 +76,26 @@ public class CartItemImplementation implements CartItemInterface {
 	@Override
 	@Transactional
 	public double calculateTotal(List<CartItem> cartItems) {
-		double total = 0.0;
+		long totalCents = 0;
 		for (CartItem item: cartItems) {
-			total += item.getQuantity()*item.getProduct().getPrice();
+			totalCents += CartLineView.toCents(item.getProduct().getPrice()) * item.getQuantity();
+		}
+		return totalCents / 100.0;
+	}
+	
+	@Override
+	@Transactional
+	public List<CartLineView> getCartLines(Long customerId) {
+		return cartitemRepo.findCartLines(customerId);
+	}
+	
+	@Override
+	public long calculateTotalCents(List<CartLineView> cartLines) {
+		long totalCents = 0;
+		for (CartLineView line: cartLines) {
+			totalCents += line.getSubtotalCents();
 		}
-		return total;
+		return totalCents;
 	}
 	
 }
@@ -4,6 +4,7 @@ package com.ecommerce.service;
 import java.util.List;
 
 // import sg.edu.nus.cart.model.CartItem;
+import com.ecommerce.dto.CartLineView;
 import com.ecommerce.model.CartItem;
 
 //Goh Ching Tard
@@ -12,9 +13,13 @@ public interface CartItemInterface {
 	public List<CartItem> GetProductsInCart(Long customerId);
 	public boolean IsItemInCart(Long productId, Long cartId, Integer quantity);
 	public void clearCartItems();
+	public void clearCartItems(Long cartId);
 
 	//added by shir
 	double calculateTotal(List<CartItem> cartItems);
+
+	public List<CartLineView> getCartLines(Long customerId);
+	public long calculateTotalCents(List<CartLineView> cartLines);
 }
 
 
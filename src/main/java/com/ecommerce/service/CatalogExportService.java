@@ -0,0 +1,55 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductView;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * CatalogExportService - Streams the active catalog as NDJSON, one ProductView per line
+ * Rows are read through a forward-only cursor in id order and detached once written, so heap
+ * use stays flat whatever the catalog size; the last id written is the resume point
+ */
+@Service
+public class CatalogExportService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Writes every active product with an id greater than afterId; returns the number written.
+     * The stream is not closed, so callers can wrap it (e.g. in gzip) and finish it themselves.
+     */
+    @Transactional(readOnly = true)
+    public long exportActiveProducts(Long afterId, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<Product> products = productRepository.streamActiveProductsAfter(afterId == null ? 0L : afterId)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                // not through the catalog cache's JSON slices: a full export would flush its LRU
+                out.write(objectMapper.writeValueAsBytes(ProductView.of(product)));
+                out.write('\n');
+                entityManager.detach(product);
+                written++;
+            }
+        }
+        return written;
+    }
+}
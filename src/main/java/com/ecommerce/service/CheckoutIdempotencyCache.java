@@ -0,0 +1,73 @@
+package com.ecommerce.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CheckoutIdempotencyCache - Short-lived dedup of checkout submissions by idempotency key on this node
+ * The first submission claims the key; repeats (double clicks, client retries) wait for it and share
+ * its redirect to the placed order. Across nodes the PENDING order claimed in the database is the guard
+ */
+@Component
+public class CheckoutIdempotencyCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public CheckoutIdempotencyCache(@Value("${checkout.idempotency.ttl-ms:600000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Claims the key for this submission. Returns null when the caller owns it and must complete
+     * the placeholder, or the first submission's result when the key is already taken.
+     */
+    public CompletableFuture<ModelAndView> claim(Long customerId, String idempotencyKey,
+                                                 CompletableFuture<ModelAndView> placeholder) {
+        if (customerId == null || idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Entry claimed = new Entry(placeholder, now + ttlMillis);
+        Entry existing = entries.compute(key(customerId, idempotencyKey),
+                (k, current) -> current == null || current.expiresAt < now ? claimed : current);
+        return existing == claimed ? null : existing.result.thenApply(CheckoutIdempotencyCache::copyOf);
+    }
+
+    /**
+     * Drops a claim whose submission failed, so a corrected retry with the same key goes through
+     */
+    public void release(Long customerId, String idempotencyKey, CompletableFuture<ModelAndView> placeholder) {
+        if (customerId == null || idempotencyKey == null) {
+            return;
+        }
+        entries.computeIfPresent(key(customerId, idempotencyKey),
+                (k, current) -> current.result == placeholder ? null : current);
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.idempotency.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // keys are scoped per customer so one client's key can never replay another's result
+    private static String key(Long customerId, String idempotencyKey) {
+        return customerId + ":" + idempotencyKey;
+    }
+
+    // each response gets its own view; kept results are redirects, so the view name is all there is
+    private static ModelAndView copyOf(ModelAndView view) {
+        return new ModelAndView(view.getViewName());
+    }
+
+    private record Entry(CompletableFuture<ModelAndView> result, long expiresAt) {}
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * FailedLoginCache - Short-lived negative cache for rejected logins
+ * Repeats of a failed identifier/password pair are rejected without a database lookup or a
+ * password hash; passwords are only kept as digests. Unknown identifiers are cached per pair
+ * too, so a cache hit looks the same whether or not the account exists. All entries share one
+ * TTL, so insertion order is expiry order and a full cache drops its oldest entries first.
+ */
+@Component
+public class FailedLoginCache {
+
+    // key -> expiry, oldest first; guarded by this
+    private final LinkedHashMap<String, Long> expiries = new LinkedHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public FailedLoginCache(@Value("${security.login.negative-cache-ttl-ms:60000}") long ttlMillis,
+                            @Value("${security.login.negative-cache-size:50000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isKnownFailure(String identifier, String password) {
+        String key = attemptKey(identifier, password);
+        synchronized (this) {
+            return isLive(key, System.currentTimeMillis());
+        }
+    }
+
+    public void recordFailedAttempt(String identifier, String password) {
+        String key = attemptKey(identifier, password);
+        synchronized (this) {
+            put(key);
+        }
+    }
+
+    /**
+     * Forgets everything cached for an account, e.g. after registration or a password change
+     */
+    public synchronized void invalidate(String... identifiers) {
+        for (String identifier : identifiers) {
+            if (identifier == null) {
+                continue;
+            }
+            String prefix = identifierKey(identifier);
+            expiries.keySet().removeIf(key -> key.equals(prefix) || key.startsWith(prefix + ":"));
+        }
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private boolean isLive(String key, long now) {
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry < now) {
+            expiries.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    private void put(String key) {
+        long now = System.currentTimeMillis();
+        // re-insert so a refreshed entry moves to the young end
+        expiries.remove(key);
+        Iterator<Long> oldest = expiries.values().iterator();
+        while (oldest.hasNext() && expiries.size() >= maxEntries) {
+            // expired entries are at the old end; past them, the oldest live entries make room
+            oldest.next();
+            oldest.remove();
+        }
+        expiries.put(key, now + ttlMillis);
+    }
+
+    private static String identifierKey(String identifier) {
+        return identifier.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String attemptKey(String identifier, String password) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return identifierKey(identifier) + ":" + Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+}
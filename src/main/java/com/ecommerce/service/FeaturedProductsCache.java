@@ -0,0 +1,85 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductView;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.OrderItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FeaturedProductsCache - Periodically refreshed top-N featured products
+ * Best sellers first, topped up with the newest products; reads never touch the database.
+ * The snapshot holds immutable ProductViews, so callers get fresh Products they may modify
+ */
+@Component
+public class FeaturedProductsCache {
+
+    public static final int MAX_FEATURED = 12;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    // Immutable snapshot, swapped atomically on refresh
+    private volatile List<ProductView> snapshot = List.of();
+
+    public List<Product> getFeaturedProducts(int limit) {
+        List<ProductView> current = snapshot;
+        int count = Math.max(0, Math.min(limit, current.size()));
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(current.get(i).toProduct());
+        }
+        return products;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${featured.products.refresh-ms:300000}",
+               initialDelayString = "${featured.products.refresh-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Map<Long, Product> featured = new LinkedHashMap<>();
+
+        List<Long> topSellerIds = orderItemRepository.findTopSellingProductIds(PageRequest.of(0, MAX_FEATURED));
+        if (!topSellerIds.isEmpty()) {
+            Map<Long, Product> byId = new LinkedHashMap<>();
+            for (Product product : productRepository.findAllById(topSellerIds)) {
+                byId.put(product.getId(), product);
+            }
+            for (Long id : topSellerIds) {
+                Product product = byId.get(id);
+                if (product != null && Boolean.TRUE.equals(product.getIsActive())) {
+                    featured.put(id, product);
+                }
+            }
+        }
+
+        if (featured.size() < MAX_FEATURED) {
+            for (Product product : productRepository.findLatestProducts(PageRequest.of(0, MAX_FEATURED * 2))) {
+                if (featured.size() >= MAX_FEATURED) {
+                    break;
+                }
+                featured.putIfAbsent(product.getId(), product);
+            }
+        }
+
+        List<ProductView> views = new ArrayList<>(featured.size());
+        for (Product product : featured.values()) {
+            views.add(ProductView.of(product));
+        }
+        snapshot = List.copyOf(views);
+    }
+}
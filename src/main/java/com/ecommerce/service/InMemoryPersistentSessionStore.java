@@ -0,0 +1,41 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.SessionCart;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InMemoryPersistentSessionStore - Node-local store for development without the session data table
+ * Enabled with session.persistence.store=memory
+ */
+@Component
+@ConditionalOnProperty(name = "session.persistence.store", havingValue = "memory")
+public class InMemoryPersistentSessionStore implements PersistentSessionStore {
+
+    private final Map<Long, SessionCart> carts = new ConcurrentHashMap<>();
+    private final Map<Long, List<Map<String, Object>>> browseHistories = new ConcurrentHashMap<>();
+
+    @Override
+    public SessionCart loadCart(Long userId) {
+        return carts.get(userId);
+    }
+
+    @Override
+    public void saveCart(Long userId, SessionCart cart) {
+        carts.put(userId, cart);
+    }
+
+    @Override
+    public List<Map<String, Object>> loadBrowseHistory(Long userId) {
+        return browseHistories.get(userId);
+    }
+
+    @Override
+    public void saveBrowseHistory(Long userId, List<Map<String, Object>> history) {
+        browseHistories.put(userId, history);
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.SessionAttributeSerializer;
+import com.ecommerce.model.SessionCart;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JdbcPersistentSessionStore - Write-behind persistence of carts and browse history
+ * Values are serialized when saved and flushed to user_session_data in JDBC batches. A bounded
+ * LRU hot tier keeps recent payloads with their updated_at version; reads revalidate it against
+ * the row, so writes from other nodes are never masked by a stale local copy.
+ */
+@Component
+@ConditionalOnProperty(name = "session.persistence.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcPersistentSessionStore implements PersistentSessionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcPersistentSessionStore.class);
+
+    private static final String CART = "CART";
+    private static final String BROWSE_HISTORY = "BROWSE_HISTORY";
+
+    // returns no row when the cached version is still current
+    private static final String SELECT_IF_CHANGED_SQL =
+            "SELECT payload, updated_at FROM user_session_data WHERE user_id = ? AND data_type = ? AND updated_at <> ?";
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_session_data (user_id, data_type, payload, updated_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE payload = VALUES(payload), updated_at = VALUES(updated_at)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionAttributeSerializer sessionAttributeSerializer;
+
+    @Value("${session.persistence.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    // Recently read or written payloads; revalidated against updated_at before use
+    private final Map<String, Snapshot> hotTier;
+
+    // Payloads written since the last flush; never evicted before they reach the database
+    private final Map<String, Snapshot> dirty = new ConcurrentHashMap<>();
+
+    public JdbcPersistentSessionStore(@Value("${session.persistence.hot-capacity:10000}") int hotCapacity) {
+        this.hotTier = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > hotCapacity;
+            }
+        });
+    }
+
+    @Override
+    public SessionCart loadCart(Long userId) {
+        // rows written before SessionCart hold nested maps and are ignored
+        Object cart = load(userId, CART);
+        return cart instanceof SessionCart ? (SessionCart) cart : null;
+    }
+
+    @Override
+    public void saveCart(Long userId, SessionCart cart) {
+        save(userId, CART, cart);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> loadBrowseHistory(Long userId) {
+        return (List<Map<String, Object>>) load(userId, BROWSE_HISTORY);
+    }
+
+    @Override
+    public void saveBrowseHistory(Long userId, List<Map<String, Object>> history) {
+        save(userId, BROWSE_HISTORY, history);
+    }
+
+    // ============== WRITE-BEHIND FLUSH ==============
+
+    @Scheduled(fixedDelayString = "${session.persistence.flush-ms:2000}")
+    @PreDestroy
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, Snapshot>> batch = new ArrayList<>(flushBatchSize);
+        for (Map.Entry<String, Snapshot> entry : dirty.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() >= flushBatchSize) {
+                writeBatch(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private Object load(Long userId, String type) {
+        if (userId == null) {
+            return null;
+        }
+        String key = key(userId, type);
+        Snapshot pending = dirty.get(key);
+        if (pending != null) {
+            return sessionAttributeSerializer.deserialize(pending.payload());
+        }
+        Snapshot cached = hotTier.get(key);
+        List<Snapshot> rows = jdbcTemplate.query(SELECT_IF_CHANGED_SQL,
+                (rs, rowNum) -> new Snapshot(rs.getBytes(1), rs.getLong(2)),
+                userId, type, cached != null ? cached.version() : -1L);
+        if (!rows.isEmpty()) {
+            cached = rows.get(0);
+            hotTier.put(key, cached);
+        }
+        return cached != null ? sessionAttributeSerializer.deserialize(cached.payload()) : null;
+    }
+
+    // serialized here, on the thread that owns the value, so the flush never reads live session objects
+    private void save(Long userId, String type, Object value) {
+        if (userId == null || value == null) {
+            return;
+        }
+        String key = key(userId, type);
+        Snapshot snapshot = new Snapshot(sessionAttributeSerializer.serialize(value), System.currentTimeMillis());
+        hotTier.put(key, snapshot);
+        dirty.put(key, snapshot);
+    }
+
+    private void writeBatch(List<Map.Entry<String, Snapshot>> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, toArgs(batch));
+            markFlushed(batch);
+        } catch (RuntimeException e) {
+            // isolate the failing entries; the rest still go out, failures stay dirty for the next flush
+            for (Map.Entry<String, Snapshot> entry : batch) {
+                try {
+                    jdbcTemplate.update(UPSERT_SQL, toArgs(List.of(entry)).get(0));
+                    markFlushed(List.of(entry));
+                } catch (RuntimeException failed) {
+                    // markFlushed was skipped, so the entry is still in dirty and the next flush retries it
+                    log.warn("Could not persist session data {}; will retry on the next flush", entry.getKey(), failed);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    // only clear entries that were not rewritten while the batch was in flight
+    private void markFlushed(List<Map.Entry<String, Snapshot>> entries) {
+        for (Map.Entry<String, Snapshot> entry : entries) {
+            dirty.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static List<Object[]> toArgs(List<Map.Entry<String, Snapshot>> entries) {
+        List<Object[]> args = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Snapshot> entry : entries) {
+            String key = entry.getKey();
+            int separator = key.indexOf(':');
+            args.add(new Object[] {
+                    Long.valueOf(key.substring(0, separator)), key.substring(separator + 1),
+                    entry.getValue().payload(), entry.getValue().version() });
+        }
+        return args;
+    }
+
+    private static String key(Long userId, String type) {
+        return userId + ":" + type;
+    }
+
+    // serialized value and the updated_at it is (or will be) stored under
+    private record Snapshot(byte[] payload, long version) {}
+}
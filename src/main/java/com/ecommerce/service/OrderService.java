@@ -18,4 +18,17 @@ public interface OrderService {
 	// as a guide this should handle creation and persistence of an order
 	Order createOrder(List<CartItem> cartItems, Customer customer);
 
+	// idempotencyKey identifies the checkout submission; a repeat returns the order already placed
+	Order createOrder(List<CartItem> cartItems, Customer customer, String idempotencyKey);
+
+	// claims the submission key with a PENDING order before the card is charged; a second claim fails on the unique key
+	Order createPendingOrder(List<CartItem> cartItems, Customer customer, String idempotencyKey);
+
+	// payment approved: the pending order is confirmed and the cart cleared; a no-op once done
+	void confirmOrder(Long orderId);
+
+	// payment declined: the pending order is dropped, which frees its key for a retry; false if it was
+	// no longer pending, i.e. already settled here or on another node
+	boolean cancelOrder(Long orderId);
+
 }
@@ -1,12 +1,19 @@
 package com.ecommerce.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.ecommerce.model.CartItem;
 import com.ecommerce.model.User;
@@ -33,30 +40,111 @@ public class OrderServiceImpl implements OrderService{
 	
 	@Autowired
 	private CartService cartService; //for reuse of total calculation
+
+	@Autowired
+	private CartItemInterface cartItemService;
+
+	@Autowired
+	private PurchasedProductIndex purchasedProductIndex;
 	
 	@Override
 	public Order createOrder(List<CartItem> cartItems, User user){
+		return createOrder(cartItems, user, null);
+	}
+	
+	public Order createOrder(List<CartItem> cartItems, User user, String idempotencyKey){
 		
-		//create order
-		Order order = new Order();
-		order.setUser(user);
-		order.setOrderDate(LocalDateTime.now());
-		
-		//to store cart items as order products (for retrieval of order history)
-		List<OrderItem> orderItems = cartItems.stream()
-												.map(cartItem -> new OrderItem(order, cartItem.getProduct(), cartItem.getQuantity(), cartItem.getProduct().getPrice().doubleValue()))
-												.collect(Collectors.toList());
+		//repeat submission: the unique key on orders is the final guard, this just avoids the failed insert
+		if (idempotencyKey != null) {
+			Optional<Order> existingOrder = orderRepository.findByIdempotencyKey(idempotencyKey);
+			if (existingOrder.isPresent()) {
+				return existingOrder.get();
+			}
+		}
 		
-		order.setOrderItems(orderItems);
+		//save order; order items cascade and go out as JDBC batches (hibernate.jdbc.batch_size)
+		Order savedOrder = orderRepository.save(newOrder(cartItems, user, idempotencyKey));
 		
-		//save order
-		Order savedOrder = orderRepository.save(order);
 		
+		//clear cart: one bulk delete per cart, only this customer's lines
+		Set<Long> cartIds = new LinkedHashSet<>();
+		for (CartItem cartItem : cartItems) {
+			if (cartItem.getCart() != null) {
+				cartIds.add(cartItem.getCart().getId()); // id comes from the lazy proxy, no load
+			}
+		}
+		for (Long cartId : cartIds) {
+			cartItemService.clearCartItems(cartId);
+		}
 		
-		//clear cart
-		//cartRepository.clearCustomerCart(customer.getId());
+		Map<Long, String> purchased = new LinkedHashMap<>();
+		for (CartItem cartItem : cartItems) {
+			purchased.put(cartItem.getProduct().getId(), cartItem.getProduct().getName());
+		}
+		indexAfterCommit(user.getId(), purchased);
 		return savedOrder;
 
 	}
 	
+	public Order createPendingOrder(List<CartItem> cartItems, User user, String idempotencyKey){
+		// flushed here so a key already claimed on any node fails now, before anything is charged
+		return orderRepository.saveAndFlush(newOrder(cartItems, user, idempotencyKey));
+	}
+	
+	@Override
+	public void confirmOrder(Long orderId){
+		Order order = orderRepository.findById(orderId).orElse(null);
+		if (order == null || order.getStatus() != Order.OrderStatus.PENDING) {
+			return;
+		}
+		order.setStatus(Order.OrderStatus.CONFIRMED);
+		order.setUpdatedAt(LocalDateTime.now());
+		
+		Long userId = order.getUser().getId();
+		cartRepository.findIdByCustomerId(userId).ifPresent(cartItemService::clearCartItems);
+		
+		Map<Long, String> purchased = new LinkedHashMap<>();
+		for (OrderItem orderItem : order.getOrderItems()) {
+			purchased.put(orderItem.getProduct().getId(), orderItem.getProduct().getName());
+		}
+		indexAfterCommit(userId, purchased);
+	}
+	
+	@Override
+	public boolean cancelOrder(Long orderId){
+		Optional<Order> order = orderRepository.findById(orderId)
+				.filter(pending -> pending.getStatus() == Order.OrderStatus.PENDING);
+		order.ifPresent(orderRepository::delete);
+		return order.isPresent();
+	}
+	
+	// ============== PRIVATE HELPER METHODS ==============
+	
+	private Order newOrder(List<CartItem> cartItems, User user, String idempotencyKey){
+		Order order = new Order();
+		order.setUser(user);
+		order.setIdempotencyKey(idempotencyKey);
+		order.setOrderDate(LocalDateTime.now());
+		
+		//to store cart items as order products (for retrieval of order history)
+		BigDecimal total = BigDecimal.ZERO;
+		for (CartItem cartItem : cartItems) {
+			BigDecimal price = cartItem.getProduct().getPrice();
+			order.addOrderItem(new OrderItem(order, cartItem.getProduct(), cartItem.getQuantity(), price.doubleValue()));
+			total = total.add(price.multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+		}
+		order.setTotalAmount(total);
+		return order;
+	}
+	
+	//index the purchased products for purchase-history search once the order has committed
+	private void indexAfterCommit(Long userId, Map<Long, String> purchased){
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				purchasedProductIndex.recordPurchases(userId, purchased);
+			}
+		});
+	}
+	
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Payment;
+
+/**
+ * PaymentGateway - Outbound card authorisation; implementations may block on I/O
+ * Charges are keyed by the payment's idempotency key, so a repeated charge for the same key
+ * returns the first result instead of charging the card again
+ */
+public interface PaymentGateway {
+
+    boolean charge(Payment payment, double amount);
+
+    // APPROVED or DECLINED once settled, PENDING while still processing; a reference never charged is DECLINED
+    PaymentOutcome lookup(String reference);
+}
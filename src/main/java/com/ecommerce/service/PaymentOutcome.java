@@ -0,0 +1,15 @@
+package com.ecommerce.service;
+
+/**
+ * PaymentOutcome - Result of a card charge as far as checkout knows it
+ * PENDING means the gateway has not answered yet: the card may or may not have been charged,
+ * so the stock and the idempotency key are kept until the charge is reconciled. BUSY means the
+ * gateway was saturated and the charge was never sent: nothing was charged and the shopper may retry
+ */
+public enum PaymentOutcome {
+    APPROVED, DECLINED, PENDING, BUSY;
+
+    public boolean isFinal() {
+        return this != PENDING;
+    }
+}
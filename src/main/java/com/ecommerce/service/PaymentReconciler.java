@@ -0,0 +1,97 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.repository.OrderItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PaymentReconciler - Settles checkouts whose charge outlived the gateway timeout
+ * The stock reservation and the idempotency key stay held while the outcome is unknown;
+ * each pass asks for the final outcome and then places the order or releases the stock.
+ * Pending orders left by a restart are picked up from the orders table at startup.
+ */
+@Component
+public class PaymentReconciler {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    // idempotency key -> what to do once the charge is settled
+    private final Map<String, Settlement> pending = new ConcurrentHashMap<>();
+
+    public void track(String reference, Runnable onApproved, Runnable onDeclined) {
+        pending.put(reference, new Settlement(onApproved, onDeclined));
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Tracks every PENDING order with a key. Their reservations were in memory and are gone, but
+     * the reserved units were flushed to stock_quantity: an approved order keeps them, and a
+     * declined one puts them back only if it is the one that cancels the order
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Map<Long, String> references = new HashMap<>();
+        Map<Long, Map<Long, Integer>> lines = new HashMap<>();
+        for (Object[] row : orderItemRepository.findLinesByOrderStatus(Order.OrderStatus.PENDING)) {
+            Long orderId = (Long) row[0];
+            references.put(orderId, (String) row[1]);
+            lines.computeIfAbsent(orderId, id -> new LinkedHashMap<>())
+                    .merge((Long) row[2], (Integer) row[3], Integer::sum);
+        }
+        for (Map.Entry<Long, String> entry : references.entrySet()) {
+            Long orderId = entry.getKey();
+            Map<Long, Integer> quantities = lines.get(orderId);
+            pending.putIfAbsent(entry.getValue(), new Settlement(
+                    () -> orderService.confirmOrder(orderId),
+                    () -> {
+                        if (orderService.cancelOrder(orderId)) {
+                            stockReservationService.restock(quantities);
+                        }
+                    }));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconcile.interval-ms:10000}")
+    public void reconcile() {
+        for (Map.Entry<String, Settlement> entry : pending.entrySet()) {
+            PaymentOutcome outcome = paymentService.reconcile(entry.getKey());
+            if (!outcome.isFinal()) {
+                continue;
+            }
+            try {
+                if (outcome == PaymentOutcome.APPROVED) {
+                    entry.getValue().onApproved.run();
+                } else {
+                    entry.getValue().onDeclined.run();
+                }
+            } catch (RuntimeException e) {
+                continue; // both settlements are idempotent by key, so the next pass simply tries again
+            }
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private record Settlement(Runnable onApproved, Runnable onDeclined) {}
+}
@@ -3,8 +3,15 @@ package com.ecommerce.service;
 
 // import sg.edu.nus.caproject.model.Payment;
 import com.ecommerce.model.Payment;
+import java.util.concurrent.CompletableFuture;
 
 public interface PaymentService {
 	//main responsibility is to handle payment processing logic
 	boolean processPayment (Payment payment, double amount);
+
+	//same checks, but the gateway call runs off the request thread; PENDING when the gateway is too slow to answer
+	CompletableFuture<PaymentOutcome> processPaymentAsync (Payment payment, double amount);
+
+	//final outcome of a PENDING charge, by its idempotency key; still PENDING while the gateway has no answer
+	PaymentOutcome reconcile (String reference);
 }
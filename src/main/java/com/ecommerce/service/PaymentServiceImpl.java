@@ -1,42 +1,131 @@
 //package name here
 package com.ecommerce.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PreDestroy;
 import com.ecommerce.model.Payment;
 import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+// no @Transactional: nothing here touches the database, and a transaction
+// would pin a connection for the whole gateway round trip
 @Service
-@Transactional
 public class PaymentServiceImpl implements PaymentService{
 //main responsibility is to handle payment processing logic
 // eg calling payment gateway, through here it will mainly be validation
 
+	@Autowired
+	private PaymentGateway paymentGateway;
+
+	// one virtual thread per payment; the semaphore, not the pool, bounds gateway load
+	private final ExecutorService paymentExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	// idempotency key -> charge still running on this node
+	private final Map<String, CompletableFuture<PaymentOutcome>> pendingCharges = new ConcurrentHashMap<>();
+	private final Semaphore inFlight;
+	private final long acquireTimeoutMs;
+	private final long gatewayTimeoutMs;
+
+	public PaymentServiceImpl(@Value("${payment.gateway.max-in-flight:200}") int maxInFlight,
+			@Value("${payment.gateway.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+			@Value("${payment.gateway.timeout-ms:5000}") long gatewayTimeoutMs) {
+		this.inFlight = new Semaphore(maxInFlight, true);
+		this.acquireTimeoutMs = acquireTimeoutMs;
+		this.gatewayTimeoutMs = gatewayTimeoutMs;
+	}
+
 	public boolean processPayment (Payment payment, double amount) {
+		if (!isValid(payment, amount)) {
+			return false;
+		}
+		return chargeWithPermit(payment, amount) == PaymentOutcome.APPROVED;
+	}
+
+	public CompletableFuture<PaymentOutcome> processPaymentAsync (Payment payment, double amount) {
+		if (!isValid(payment, amount)) {
+			return CompletableFuture.completedFuture(PaymentOutcome.DECLINED);
+		}
+		CompletableFuture<PaymentOutcome> charge =
+				CompletableFuture.supplyAsync(() -> chargeWithPermit(payment, amount), paymentExecutor);
+		String reference = payment.getIdempotencyKey();
+		if (reference != null) {
+			// kept until the charge settles, so reconcile can answer before the gateway is asked
+			pendingCharges.put(reference, charge);
+			charge.whenComplete((outcome, ex) -> pendingCharges.remove(reference, charge));
+		}
+		// a call that outlives the timeout keeps running; the caller only learns that it is not settled yet
+		return charge.copy().completeOnTimeout(PaymentOutcome.PENDING, gatewayTimeoutMs, TimeUnit.MILLISECONDS);
+	}
+
+	public PaymentOutcome reconcile (String reference) {
+		CompletableFuture<PaymentOutcome> charge = pendingCharges.get(reference);
+		if (charge != null) {
+			return charge.isDone() ? charge.join() : PaymentOutcome.PENDING;
+		}
+		try {
+			return paymentGateway.lookup(reference);
+		} catch (RuntimeException e) {
+			return PaymentOutcome.PENDING; // gateway unreachable: ask again on the next pass
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		paymentExecutor.shutdown();
+	}
+
+	private PaymentOutcome chargeWithPermit (Payment payment, double amount) {
+		try {
+			// gateway saturated: fail fast instead of queueing without bound; nothing was charged
+			if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+				return PaymentOutcome.BUSY;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return PaymentOutcome.BUSY;
+		}
+		try {
+			return paymentGateway.charge(payment, amount) ? PaymentOutcome.APPROVED : PaymentOutcome.DECLINED;
+		} catch (RuntimeException e) {
+			// the request may have reached the gateway; only a lookup can tell
+			return PaymentOutcome.PENDING;
+		} finally {
+			inFlight.release();
+		}
+	}
+
+	private boolean isValid (Payment payment, double amount) {
 		//minimal check as payment simulation
 		if (amount<=0) {
 			return false;
 		}
-		
+
 		// Basic payment validation
 		if (payment == null) {
 			return false;
 		}
-		
+
 		// Check if card is expired
 		if (payment.getExpiryDate() != null && payment.getExpiryDate().compareTo(YearMonth.now()) < 0) {
 			return false; // Card is expired
 		}
-		
+
 		// Check if required fields are present
 		if (payment.getName() == null || payment.getName().trim().isEmpty()) {
 			return false;
 		}
-		
+
 		if (payment.getCcNumber() == null || payment.getCcNumber().length() != 16) {
 			return false;
 		}
-		
+
 		return true;
 	}
 }
@@ -0,0 +1,21 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.SessionCart;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PersistentSessionStore - Cross-session storage for carts and browse history
+ * Backs SessionManager so data survives logout, restarts and node changes
+ */
+public interface PersistentSessionStore {
+
+    SessionCart loadCart(Long userId);
+
+    void saveCart(Long userId, SessionCart cart);
+
+    List<Map<String, Object>> loadBrowseHistory(Long userId);
+
+    void saveBrowseHistory(Long userId, List<Map<String, Object>> history);
+}
@@ -0,0 +1,359 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductView;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * ProductCatalogCache - Two-level, per-node product cache
+ * Level one holds immutable ProductView snapshots by id, never entities; callers get a fresh
+ * detached Product per read. Level two holds category and brand query results as id lists
+ * resolved through level one. Alongside level one sit the serialized JSON bytes of each view,
+ * so API responses are assembled from cached slices. A write evicts the product and only the
+ * category and brand results it left or joined; hit, miss and eviction counts are published
+ * to the actuator metrics endpoint as catalog.cache.*
+ */
+@Component
+public class ProductCatalogCache implements MeterBinder {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Lru<Long, ProductView> products;
+    private final Lru<Long, byte[]> json;
+    private final Lru<String, List<Long>> byCategory;
+    private final Lru<String, List<Long>> byBrand;
+
+    // bumped on every invalidation; a load that started before it is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCatalogCache(@Value("${catalog.cache.products.capacity:10000}") int productCapacity,
+                               @Value("${catalog.cache.queries.capacity:500}") int queryCapacity) {
+        this.products = new Lru<>(productCapacity);
+        this.json = new Lru<>(productCapacity);
+        this.byCategory = new Lru<>(queryCapacity);
+        this.byBrand = new Lru<>(queryCapacity);
+    }
+
+    // ============== READS ==============
+
+    /**
+     * A copy of the cached product, or null when no such product exists
+     */
+    public Product getProduct(Long productId) {
+        ProductView view = getView(productId);
+        return view != null ? view.toProduct() : null;
+    }
+
+    /**
+     * Products in the order of the given ids; misses are loaded in one batch, unknown ids skipped
+     */
+    public List<Product> getProducts(List<Long> productIds) {
+        Map<Long, ProductView> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductView cached = products.get(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long seen = generation.get();
+            for (Product loaded : productRepository.findAllById(missing)) {
+                ProductView view = ProductView.of(loaded);
+                found.put(view.id(), view);
+                putIfCurrent(products, view.id(), view, seen);
+            }
+        }
+        List<Product> ordered = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            ProductView view = found.get(productId);
+            if (view != null) {
+                ordered.add(view.toProduct());
+            }
+        }
+        return ordered;
+    }
+
+    public List<Product> getByCategory(String category) {
+        return query(byCategory, category, () -> productRepository.findByCategory(category));
+    }
+
+    public List<Product> getByBrand(String brand) {
+        return query(byBrand, brand, () -> productRepository.findByBrand(brand));
+    }
+
+    // ============== JSON SLICES ==============
+
+    /**
+     * Serialized ProductView of one product, or null when no such product exists.
+     * The array is shared between responses and must not be modified.
+     */
+    public byte[] getProductJson(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        byte[] cached = json.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        ProductView view = getView(productId);
+        return view == null ? null : slice(view, seen);
+    }
+
+    /**
+     * JSON array of the given products' views, built by concatenating their cached slices
+     */
+    public byte[] toJsonArray(List<Product> productList) {
+        long seen = generation.get();
+        List<byte[]> slices = new ArrayList<>(productList.size());
+        int length = 2 + Math.max(0, productList.size() - 1);
+        for (Product product : productList) {
+            byte[] cached = json.get(product.getId());
+            byte[] slice = cached != null ? cached : slice(ProductView.of(product), seen);
+            slices.add(slice);
+            length += slice.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        out.write('[');
+        for (int i = 0; i < slices.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(slices.get(i));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    // ============== INVALIDATION ==============
+
+    /**
+     * Drops the product and the category and brand results it was or is now part of, now and
+     * again once the surrounding transaction commits, so a read racing the write cannot re-cache the old row
+     */
+    public void invalidate(Product product) {
+        Long productId = product.getId();
+        if (productId == null) {
+            return;
+        }
+        // the cached snapshot still holds the old category and brand; captured once for both evictions
+        ProductView previous = products.peek(productId);
+        String[] categories = { product.getCategory(), previous != null ? previous.category() : null };
+        String[] brands = { product.getBrand(), previous != null ? previous.brand() : null };
+        boolean oldKeysKnown = previous != null;
+        evict(productId, categories, brands, oldKeysKnown);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(productId, categories, brands, oldKeysKnown);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stock-only changes written outside JPA: the snapshots go, query results (ids only) stay
+     */
+    public void evictSnapshots(Collection<Long> productIds) {
+        generation.incrementAndGet();
+        for (Long productId : productIds) {
+            products.remove(productId);
+            json.remove(productId);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        products.clear();
+        json.clear();
+        byCategory.clear();
+        byBrand.clear();
+    }
+
+    // ============== METRICS ==============
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "products", products);
+        bind(registry, "json", json);
+        bind(registry, "category", byCategory);
+        bind(registry, "brand", byBrand);
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private ProductView getView(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        ProductView cached = products.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        ProductView loaded = productRepository.findById(productId).map(ProductView::of).orElse(null);
+        if (loaded != null) {
+            putIfCurrent(products, productId, loaded, seen);
+        }
+        return loaded;
+    }
+
+    private void evict(Long productId, String[] categories, String[] brands, boolean oldKeysKnown) {
+        generation.incrementAndGet();
+        products.remove(productId);
+        json.remove(productId);
+        evictQueries(byCategory, productId, categories, oldKeysKnown);
+        evictQueries(byBrand, productId, brands, oldKeysKnown);
+    }
+
+    // without the old snapshot the old key is unknown: drop whichever cached results list the product
+    private static void evictQueries(Lru<String, List<Long>> cache, Long productId, String[] keys, boolean oldKeysKnown) {
+        for (String key : keys) {
+            if (key != null) {
+                cache.remove(key);
+            }
+        }
+        if (!oldKeysKnown) {
+            cache.removeIf(ids -> ids.contains(productId));
+        }
+    }
+
+    private byte[] slice(ProductView view, long seen) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize product " + view.id(), e);
+        }
+        if (view.id() != null) {
+            putIfCurrent(json, view.id(), bytes, seen);
+        }
+        return bytes;
+    }
+
+    private List<Product> query(Lru<String, List<Long>> cache, String key, Supplier<List<Product>> loader) {
+        if (key == null) {
+            return List.of();
+        }
+        List<Long> ids = cache.get(key);
+        if (ids != null) {
+            return getProducts(ids);
+        }
+        long seen = generation.get();
+        List<Product> loaded = loader.get();
+        List<Long> loadedIds = new ArrayList<>(loaded.size());
+        List<Product> copies = new ArrayList<>(loaded.size());
+        for (Product product : loaded) {
+            ProductView view = ProductView.of(product);
+            loadedIds.add(view.id());
+            putIfCurrent(products, view.id(), view, seen);
+            copies.add(view.toProduct());
+        }
+        putIfCurrent(cache, key, List.copyOf(loadedIds), seen);
+        return copies;
+    }
+
+    private <K, V> void putIfCurrent(Lru<K, V> cache, K key, V value, long seen) {
+        synchronized (cache) {
+            if (generation.get() == seen) {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    private static void bind(MeterRegistry registry, String name, Lru<?, ?> cache) {
+        FunctionCounter.builder("catalog.cache.hits", cache, c -> c.hits.sum()).tag("cache", name).register(registry);
+        FunctionCounter.builder("catalog.cache.misses", cache, c -> c.misses.sum()).tag("cache", name).register(registry);
+        FunctionCounter.builder("catalog.cache.evictions", cache, c -> c.evictions.sum()).tag("cache", name).register(registry);
+        Gauge.builder("catalog.cache.size", cache, Lru::size).tag("cache", name).register(registry);
+    }
+
+    /**
+     * Bounded access-ordered map with hit/miss/eviction counters
+     */
+    private static final class Lru<K, V> {
+        private final LinkedHashMap<K, V> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        private Lru(int capacity) {
+            this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return value;
+        }
+
+        // no hit or miss counted, for bookkeeping reads
+        synchronized V peek(K key) {
+            return entries.get(key);
+        }
+
+        synchronized void removeIf(Predicate<V> condition) {
+            entries.values().removeIf(condition);
+        }
+
+        synchronized void put(K key, V value) {
+            entries.put(key, value);
+        }
+
+        synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -2,6 +2,8 @@
 package com.ecommerce.service;
 
 import java.util.List;
+import java.util.NoSuchElementException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +14,7 @@ import jakarta.transaction.Transactional;
 
 import com.ecommerce.service.ProductInterface;
 import com.ecommerce.model.Product;
+import com.ecommerce.dto.ProductPage;
 import com.ecommerce.repository.ProductRepository;
 
 //Goh Ching Tard
@@ -19,14 +22,31 @@ import com.ecommerce.repository.ProductRepository;
 @Transactional
 public class ProductImplementation implements ProductInterface {
 
+	private static final int SEARCH_LIMIT = 100;
+
 	@Autowired
 	ProductRepository productRepo;
 
+	@Autowired
+	ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	FeaturedProductsCache featuredProductsCache;
+
+	@Autowired
+	RelatedProductsIndex relatedProductsIndex;
+
+	@Autowired
+	ProductCatalogCache productCatalogCache;
+
 	@Override
 	@Transactional
 	public boolean saveProduct(Product product) {
-		if (productRepo.save(product) != null)
+		Product saved = productRepo.save(product);
+		if (saved != null) {
+			productCatalogCache.invalidate(saved);
 			return true;
+		}
 		else
 			return false;
 	}
@@ -47,21 +67,85 @@ public class ProductImplementation implements ProductInterface {
     @Override
     @Transactional
     public Product findProductById(Long id) {
-        return productRepo.findById(id).get();
+        Product product = productCatalogCache.getProduct(id);
+        if (product == null)
+            throw new NoSuchElementException("No value present");
+        return product;
+    }
+
+    // null when the product does not exist
+    @Override
+    @Transactional
+    public Product getProductById(Long id) {
+        return productCatalogCache.getProduct(id);
+    }
+
+    @Override
+    @Transactional
+    public List<Product> findByCategory(String category) {
+        return productCatalogCache.getByCategory(category);
+    }
+
+    @Override
+    @Transactional
+    public List<Product> findByBrand(String brand) {
+        return productCatalogCache.getByBrand(brand);
     }
 
     @Override
     @Transactional
     public void deleteProduct(Product product) {
         productRepo.delete(product);
+        productCatalogCache.invalidate(product);
     }
     
 	@Override
 	@Transactional
 	public boolean createProduct(Product product) {
-		if (productRepo.save(product) != null)
+		Product saved = productRepo.save(product);
+		if (saved != null) {
+			productCatalogCache.invalidate(saved);
 			return true;
+		}
 		else
 			return false;
 	}
+
+	@Override
+	public List<Product> getFeaturedProducts(int limit) {
+		return featuredProductsCache.getFeaturedProducts(limit);
+	}
+
+	// neighbours are precomputed; products come from the catalog cache, misses in one batched lookup
+	@Override
+	@Transactional
+	public List<Product> getRelatedProducts(Long productId) {
+		List<Long> ids = relatedProductsIndex.getRelatedIds(productId);
+		if (ids.isEmpty())
+			return List.of();
+		return productCatalogCache.getProducts(ids);
+	}
+
+	// ranked ids come from the in-memory index, products from the catalog cache
+	@Override
+	@Transactional
+	public List<Product> searchProducts(String keyword) {
+		List<Long> ids = productSearchIndex.search(keyword, SEARCH_LIMIT);
+		if (ids.isEmpty())
+			return List.of();
+		return productCatalogCache.getProducts(ids);
+	}
+
+	// fetches one extra row to learn whether another page exists without a COUNT query
+	@Override
+	@Transactional
+	public ProductPage getProductPage(String cursor, Integer size) {
+		int pageSize = ProductPage.clampPageSize(size);
+		long afterId = ProductPage.decodeCursor(cursor);
+		List<Product> rows = productRepo.findActiveProductsAfter(afterId, PageRequest.of(0, pageSize + 1));
+		if (rows.size() <= pageSize)
+			return new ProductPage(rows, null);
+		List<Product> page = rows.subList(0, pageSize);
+		return new ProductPage(page, ProductPage.encodeCursor(page.get(pageSize - 1).getId()));
+	}
 }
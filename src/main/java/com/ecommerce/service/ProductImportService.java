@@ -0,0 +1,314 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductImportResult;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.CsvUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ProductImportService - Streaming bulk import of the supplier catalog feed (NDJSON or CSV)
+ * Three stages per batch: lines are parsed one at a time, validated in parallel against the
+ * Bean Validation constraints on Product, then upserted by name + brand with INSERT ... ON DUPLICATE
+ * KEY UPDATE against the unique import_key, so concurrent imports can never insert the same product
+ * twice. Caches and indexes are refreshed once, after the last batch.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    // the unique import_key (normalised name + brand, see schema.sql) turns a duplicate insert into an update;
+    // optional columns keep their current value when the feed leaves them out
+    private static final String UPSERT_SQL =
+            "INSERT INTO products (name, description, image_name, category, price, brand, stock_quantity, "
+            + "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE description = COALESCE(VALUES(description), description), "
+            + "image_name = COALESCE(VALUES(image_name), image_name), category = VALUES(category), "
+            + "price = VALUES(price), is_active = VALUES(is_active), updated_at = VALUES(updated_at)";
+    // no placeholders after ON DUPLICATE KEY UPDATE, so the driver can still rewrite both as multi-row inserts
+    private static final String UPSERT_WITH_STOCK_SQL =
+            UPSERT_SQL + ", stock_quantity = VALUES(stock_quantity)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private RelatedProductsIndex relatedProductsIndex;
+
+    @Autowired
+    private FeaturedProductsCache featuredProductsCache;
+
+    @Autowired
+    private PurchasedProductIndex purchasedProductIndex;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ProductImportService(PlatformTransactionManager transactionManager,
+                                @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * CSV columns: name,category,price[,brand,description,stockQuantity,imageName,isActive]; a header
+     * line is optional. NDJSON objects use the same field names. Bad lines are rejected, not fatal.
+     */
+    public ProductImportResult importProducts(InputStream inputStream, Format format) throws IOException {
+        ProductImportResult result = new ProductImportResult();
+        List<ProductRow> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        try {
+            String line;
+            long lineNumber = 0;
+            long parsed = 0;
+            long parseStart = System.nanoTime();
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && lineNumber == 1 && line.trim().toLowerCase(Locale.ROOT).startsWith("name,")) {
+                    continue; // header
+                }
+                parsed++;
+                try {
+                    batch.add(new ProductRow(lineNumber,
+                            format == Format.NDJSON ? parseJson(line) : parseCsv(line)));
+                } catch (IllegalArgumentException e) {
+                    result.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    result.getParse().record(parsed, System.nanoTime() - parseStart);
+                    writeBatch(batch, result);
+                    batch.clear();
+                    parsed = 0;
+                    parseStart = System.nanoTime();
+                }
+            }
+            result.getParse().record(parsed, System.nanoTime() - parseStart);
+            if (!batch.isEmpty()) {
+                writeBatch(batch, result);
+            }
+        } finally {
+            // rows went in through JDBC, so the entity listener never saw them: refresh everything once
+            if (result.getInserted() + result.getUpdated() > 0) {
+                productCatalogCache.invalidateAll();
+                productSearchIndex.rebuild();
+                relatedProductsIndex.rebuild();
+                featuredProductsCache.refresh();
+                purchasedProductIndex.rebuild(); // updated names
+            }
+            // stock_quantity was overwritten underneath the reservation counters; a row counted as
+            // inserted may have been updated by a concurrent import, so any write triggers the resync
+            if (result.getInserted() + result.getUpdated() > 0) {
+                stockReservationService.resyncAll();
+            }
+        }
+        return result;
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private void writeBatch(List<ProductRow> batch, ProductImportResult result) {
+        // validate: constraint checks are independent per row and the validator is thread-safe
+        long validateStart = System.nanoTime();
+        List<String> problems = batch.parallelStream().map(row -> describe(validator.validate(row.product()))).toList();
+        result.getValidate().record(batch.size(), System.nanoTime() - validateStart);
+
+        // a key repeated within the batch keeps its last line
+        Map<Key, ProductRow> rows = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            ProductRow row = batch.get(i);
+            if (problems.get(i) != null) {
+                result.reject(row.lineNumber(), problems.get(i));
+                continue;
+            }
+            ProductRow superseded = rows.put(Key.of(row.product()), row);
+            if (superseded != null) {
+                result.reject(superseded.lineNumber(), "superseded by line " + row.lineNumber());
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        long writeStart = System.nanoTime();
+        Set<String> names = new HashSet<>();
+        for (ProductRow row : rows.values()) {
+            names.add(row.product().getName());
+        }
+        // only to report inserted vs updated: the unique import_key, not this lookup, decides which happens.
+        // the IN match follows the column collation, so stored keys are normalised the same way as feed keys
+        Set<Key> existing = new HashSet<>();
+        for (Object[] row : productRepository.findKeysByNames(names)) {
+            existing.add(Key.of((String) row[1], (String) row[2]));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> withStock = new ArrayList<>();
+        List<Object[]> keepStock = new ArrayList<>();
+        int updated = 0;
+        for (Map.Entry<Key, ProductRow> entry : rows.entrySet()) {
+            Product product = entry.getValue().product();
+            Object[] args = { product.getName(), product.getDescription(), product.getImageName(),
+                    product.getCategory(), product.getPrice(), product.getBrand(),
+                    product.getStockQuantity() != null ? product.getStockQuantity() : 0,
+                    product.getIsActive(), now, now };
+            (product.getStockQuantity() != null ? withStock : keepStock).add(args);
+            if (existing.contains(entry.getKey())) {
+                updated++;
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!withStock.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_WITH_STOCK_SQL, withStock);
+            }
+            if (!keepStock.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, keepStock);
+            }
+        });
+        result.getWrite().record(rows.size(), System.nanoTime() - writeStart);
+        result.addBatch(rows.size() - updated, updated);
+    }
+
+    private static String describe(Set<ConstraintViolation<Product>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private Product parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        return toProduct(text(node, "name"), text(node, "category"), text(node, "price"), text(node, "brand"),
+                text(node, "description"), text(node, "stockQuantity"), text(node, "imageName"),
+                text(node, "isActive"));
+    }
+
+    private static Product parseCsv(String line) {
+        List<String> fields = CsvUtils.splitLine(line);
+        if (fields.size() < 3) {
+            throw new IllegalArgumentException(
+                    "expected name,category,price[,brand,description,stockQuantity,imageName,isActive]");
+        }
+        return toProduct(fields.get(0), fields.get(1), fields.get(2), field(fields, 3), field(fields, 4),
+                field(fields, 5), field(fields, 6), field(fields, 7));
+    }
+
+    // field-level constraints (lengths, required values, price) are left to the validation stage
+    private static Product toProduct(String name, String category, String price, String brand, String description,
+                                     String stockQuantity, String imageName, String isActive) {
+        Product product = new Product();
+        product.setName(trimToNull(name));
+        product.setCategory(trimToNull(category));
+        product.setBrand(trimToNull(brand));
+        product.setDescription(trimToNull(description));
+        product.setImageName(trimToNull(imageName));
+        try {
+            product.setPrice(trimToNull(price) == null ? null : new BigDecimal(price.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number");
+        }
+        try {
+            product.setStockQuantity(trimToNull(stockQuantity) == null ? null : Integer.valueOf(stockQuantity.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("stockQuantity is not a number");
+        }
+        if (product.getStockQuantity() != null && product.getStockQuantity() < 0) {
+            throw new IllegalArgumentException("stockQuantity cannot be negative");
+        }
+        product.setIsActive(trimToNull(isActive) == null || Boolean.parseBoolean(isActive.trim()));
+        return product;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private record ProductRow(long lineNumber, Product product) {}
+
+    // name + brand as the case-insensitive collation compares them: trimmed, lower-cased, no brand = ""
+    private record Key(String name, String brand) {
+        static Key of(Product product) {
+            return of(product.getName(), product.getBrand());
+        }
+
+        static Key of(String name, String brand) {
+            return new Key(normalize(name), normalize(brand));
+        }
+
+        private static String normalize(String value) {
+            return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ProductIndexListener - Keeps the in-memory search index and catalog cache in step with Product writes
+ * Post-* callbacks are used because IDENTITY ids are only assigned after the insert; the search
+ * index is only touched once the write commits, so a rollback leaves no phantom entries
+ */
+@Component
+public class ProductIndexListener {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private PurchasedProductIndex purchasedProductIndex;
+
+    // catches entity updates made outside ProductInterface (e.g. stock changes on a managed product)
+    @PreUpdate
+    public void onUpdate(Product product) {
+        productCatalogCache.invalidate(product);
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        afterCommit(() -> {
+            productSearchIndex.index(product);
+            purchasedProductIndex.updateProductName(product.getId(), product.getName());
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        Long productId = product.getId();
+        afterCommit(() -> productSearchIndex.remove(productId));
+        productCatalogCache.invalidate(product);
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
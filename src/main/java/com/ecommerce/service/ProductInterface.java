@@ -3,6 +3,7 @@ package com.ecommerce.service;
 
 // import sg.edu.nus.cart.model.Product;
 import com.ecommerce.model.Product;
+import com.ecommerce.dto.ProductPage;
 import java.util.List;
 
 //Goh Ching Tard
@@ -12,6 +13,12 @@ public interface ProductInterface {
 	public boolean createProduct(Product product);
 	public List<Product> retrieveProducts();
 	public Product findProductById(Long id);
+	Product getProductById(Long id);
+	List<Product> findByCategory(String category);
+	List<Product> findByBrand(String brand);
 	public void deleteProduct(Product product);
 	List<Product> getFeaturedProducts(int limit);
+	List<Product> searchProducts(String keyword);
+	ProductPage getProductPage(String cursor, Integer size);
+	List<Product> getRelatedProducts(Long productId);
 }
\ No newline at end of file
@@ -0,0 +1,468 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * ProductSearchIndex - In-memory inverted index over product text fields
+ * Replaces the leading-wildcard LIKE scan used for product search. Postings are immutable,
+ * id-sorted primitive arrays, so queries never lock; single-product writes land in a small
+ * per-term delta that queries overlay and a scheduled merge folds in, so one save never copies
+ * a whole posting list. A suffix dictionary keeps the old substring semantics.
+ */
+@Component
+public class ProductSearchIndex {
+
+    // Field weights used when ranking matches
+    private static final int NAME_WEIGHT = 4;
+    private static final int BRAND_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Whole-term matches outrank prefix matches, which outrank matches inside a word
+    private static final double EXACT_BOOST = 1.0;
+    private static final double PREFIX_BOOST = 0.5;
+    private static final double INFIX_BOOST = 0.25;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // a term's delta is merged at once past this size, bounding the per-query overlay work
+    private static final int MAX_DELTA_SIZE = 256;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // replaced wholesale by rebuild(); incremental writes mutate it under the instance lock
+    private volatile State state = new State();
+
+    // ============== INDEX MAINTENANCE ==============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        // rows arrive in id order, so every posting is built by appending
+        Map<String, PostingBuilder> building = new HashMap<>();
+        Map<Long, String[]> documents = new HashMap<>();
+        PageRequest pageRequest = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<Product> page;
+        do {
+            page = productRepository.findAllActiveProducts(pageRequest);
+            for (Product product : page) {
+                Map<String, Integer> weights = weigh(product);
+                for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                    building.computeIfAbsent(entry.getKey(), t -> new PostingBuilder())
+                            .add(product.getId(), entry.getValue());
+                }
+                documents.put(product.getId(), weights.keySet().toArray(String[]::new));
+            }
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+
+        State rebuilt = new State();
+        for (Map.Entry<String, PostingBuilder> entry : building.entrySet()) {
+            rebuilt.postings.put(entry.getKey(), entry.getValue().build());
+            rebuilt.addSuffixes(entry.getKey());
+        }
+        rebuilt.documents.putAll(documents);
+        state = rebuilt;
+    }
+
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        long productId = product.getId();
+        if (product.getIsActive() == null || !product.getIsActive()) {
+            remove(productId);
+            return;
+        }
+
+        State current = state;
+        Map<String, Integer> weights = weigh(product);
+        String[] previous = current.documents.get(productId);
+        if (previous != null) {
+            for (String term : previous) {
+                if (!weights.containsKey(term)) {
+                    current.removePosting(term, productId);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            current.putPosting(entry.getKey(), productId, entry.getValue());
+        }
+        current.documents.put(productId, weights.keySet().toArray(String[]::new));
+    }
+
+    public synchronized void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        State current = state;
+        String[] terms = current.documents.remove(productId);
+        if (terms != null) {
+            for (String term : terms) {
+                current.removePosting(term, productId);
+            }
+        }
+    }
+
+    /**
+     * Folds pending per-term deltas into their postings; bulk loads still go through rebuild()
+     */
+    @Scheduled(fixedDelayString = "${search.index.merge-ms:5000}")
+    public synchronized void mergeDeltas() {
+        State current = state;
+        for (String term : current.deltas.keySet()) {
+            current.mergeTerm(term);
+        }
+    }
+
+    public synchronized void clear() {
+        state = new State();
+    }
+
+    public int size() {
+        return state.documents.size();
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * Returns matching product ids ordered by relevance. Every query term must occur somewhere
+     * in the product's words, as in the old LIKE '%term%' search; only the top limit are ranked.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        State current = state;
+        int documentCount = Math.max(1, current.documents.size());
+        Scores scores = null;
+        for (String term : terms) {
+            Scores termScores = scoreTerm(current, term, documentCount);
+            scores = scores == null ? termScores : scores.intersect(termScores);
+            if (scores.size == 0) {
+                return new ArrayList<>();
+            }
+        }
+        return scores.top(limit);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        Set<String> unique = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                unique.add(token);
+            }
+        }
+        tokens.addAll(unique);
+        return tokens;
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // best score per product over every indexed word containing the term
+    private static Scores scoreTerm(State current, String term, int documentCount) {
+        List<Scores> parts = new ArrayList<>();
+        for (Set<String> words : current.suffixes.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            for (String word : words) {
+                // delta before posting: if a merge lands in between, re-applying the delta is a no-op
+                Posting delta = current.deltas.get(word);
+                Posting posting = Posting.orEmpty(current.postings.get(word)).apply(delta);
+                if (posting.ids.length == 0) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) documentCount / posting.ids.length);
+                double boost = word.equals(term) ? EXACT_BOOST : word.startsWith(term) ? PREFIX_BOOST : INFIX_BOOST;
+                parts.add(Scores.of(posting, idf * boost));
+            }
+        }
+        return Scores.union(parts);
+    }
+
+    private static Map<String, Integer> weigh(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, product.getName(), NAME_WEIGHT);
+        addTerms(weights, product.getBrand(), BRAND_WEIGHT);
+        addTerms(weights, product.getCategory(), CATEGORY_WEIGHT);
+        addTerms(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Index contents: term postings and their pending deltas, suffix -> words dictionary,
+     * and each product's terms
+     */
+    private static final class State {
+        private final ConcurrentSkipListMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+        // pending single-product changes per term; a zero weight marks a removal
+        private final Map<String, Posting> deltas = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Set<String>> suffixes = new ConcurrentSkipListMap<>();
+        private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+
+        void putPosting(String term, long productId, int weight) {
+            if (!postings.containsKey(term)) {
+                addSuffixes(term);
+            }
+            stage(term, productId, weight);
+        }
+
+        void removePosting(String term, long productId) {
+            if (postings.containsKey(term) || deltas.containsKey(term)) {
+                stage(term, productId, 0);
+            }
+        }
+
+        void mergeTerm(String term) {
+            Posting delta = deltas.get(term);
+            if (delta == null) {
+                return;
+            }
+            Posting merged = Posting.orEmpty(postings.get(term)).apply(delta);
+            if (merged.ids.length > 0) {
+                postings.put(term, merged);
+            } else {
+                postings.remove(term);
+                removeSuffixes(term);
+            }
+            deltas.remove(term);
+        }
+
+        void addSuffixes(String term) {
+            for (int i = 0; i < term.length(); i++) {
+                suffixes.computeIfAbsent(term.substring(i), s -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+
+        private void stage(String term, long productId, int weight) {
+            Posting delta = deltas.compute(term, (t, pending) -> pending == null
+                    ? new Posting(new long[] { productId }, new int[] { weight })
+                    : pending.with(productId, weight));
+            if (delta.ids.length > MAX_DELTA_SIZE) {
+                mergeTerm(term);
+            }
+        }
+
+        private void removeSuffixes(String term) {
+            for (int i = 0; i < term.length(); i++) {
+                suffixes.computeIfPresent(term.substring(i), (suffix, words) -> {
+                    words.remove(term);
+                    return words.isEmpty() ? null : words;
+                });
+            }
+        }
+    }
+
+    /**
+     * Immutable posting list: product ids ascending with their field weights
+     */
+    private record Posting(long[] ids, int[] weights) {
+
+        private static final Posting EMPTY = new Posting(new long[0], new int[0]);
+
+        static Posting orEmpty(Posting posting) {
+            return posting == null ? EMPTY : posting;
+        }
+
+        Posting with(long productId, int weight) {
+            int index = Arrays.binarySearch(ids, productId);
+            if (index >= 0) {
+                if (weights[index] == weight) {
+                    return this;
+                }
+                int[] reweighted = weights.clone();
+                reweighted[index] = weight;
+                return new Posting(ids, reweighted);
+            }
+            int insertAt = -index - 1;
+            long[] grownIds = new long[ids.length + 1];
+            int[] grownWeights = new int[ids.length + 1];
+            System.arraycopy(ids, 0, grownIds, 0, insertAt);
+            System.arraycopy(weights, 0, grownWeights, 0, insertAt);
+            grownIds[insertAt] = productId;
+            grownWeights[insertAt] = weight;
+            System.arraycopy(ids, insertAt, grownIds, insertAt + 1, ids.length - insertAt);
+            System.arraycopy(weights, insertAt, grownWeights, insertAt + 1, ids.length - insertAt);
+            return new Posting(grownIds, grownWeights);
+        }
+
+        // overlays a delta: its ids replace ours, and zero-weight entries drop out
+        Posting apply(Posting delta) {
+            if (delta == null) {
+                return this;
+            }
+            long[] outIds = new long[ids.length + delta.ids.length];
+            int[] outWeights = new int[outIds.length];
+            int i = 0, j = 0, n = 0;
+            while (i < ids.length || j < delta.ids.length) {
+                if (j == delta.ids.length || (i < ids.length && ids[i] < delta.ids[j])) {
+                    outIds[n] = ids[i];
+                    outWeights[n++] = weights[i++];
+                    continue;
+                }
+                if (i < ids.length && ids[i] == delta.ids[j]) {
+                    i++;
+                }
+                if (delta.weights[j] > 0) {
+                    outIds[n] = delta.ids[j];
+                    outWeights[n++] = delta.weights[j];
+                }
+                j++;
+            }
+            return new Posting(Arrays.copyOf(outIds, n), Arrays.copyOf(outWeights, n));
+        }
+    }
+
+    private static final class PostingBuilder {
+        private long[] ids = new long[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void add(long productId, int weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = productId;
+            weights[size] = weight;
+            size++;
+        }
+
+        Posting build() {
+            return new Posting(Arrays.copyOf(ids, size), Arrays.copyOf(weights, size));
+        }
+    }
+
+    /**
+     * Per-query scores as parallel id-sorted arrays; merged and intersected without boxing
+     */
+    private static final class Scores {
+        private static final Scores EMPTY = new Scores(new long[0], new double[0], 0);
+
+        private final long[] ids;
+        private final double[] values;
+        private final int size;
+
+        private Scores(long[] ids, double[] values, int size) {
+            this.ids = ids;
+            this.values = values;
+            this.size = size;
+        }
+
+        static Scores of(Posting posting, double factor) {
+            double[] values = new double[posting.ids.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = posting.weights[i] * factor;
+            }
+            return new Scores(posting.ids, values, values.length);
+        }
+
+        // pairwise merges, so k lists cost O(n log k); a product keeps its best score
+        static Scores union(List<Scores> parts) {
+            if (parts.isEmpty()) {
+                return EMPTY;
+            }
+            while (parts.size() > 1) {
+                List<Scores> merged = new ArrayList<>((parts.size() + 1) / 2);
+                for (int i = 0; i + 1 < parts.size(); i += 2) {
+                    merged.add(parts.get(i).max(parts.get(i + 1)));
+                }
+                if (parts.size() % 2 == 1) {
+                    merged.add(parts.get(parts.size() - 1));
+                }
+                parts = merged;
+            }
+            return parts.get(0);
+        }
+
+        Scores max(Scores other) {
+            long[] outIds = new long[size + other.size];
+            double[] outValues = new double[size + other.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && ids[i] < other.ids[j])) {
+                    outIds[n] = ids[i];
+                    outValues[n++] = values[i++];
+                } else if (i == size || ids[i] > other.ids[j]) {
+                    outIds[n] = other.ids[j];
+                    outValues[n++] = other.values[j++];
+                } else {
+                    outIds[n] = ids[i];
+                    outValues[n++] = Math.max(values[i++], other.values[j++]);
+                }
+            }
+            return new Scores(outIds, outValues, n);
+        }
+
+        Scores intersect(Scores other) {
+            long[] outIds = new long[Math.min(size, other.size)];
+            double[] outValues = new double[outIds.length];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    outIds[n] = ids[i];
+                    outValues[n++] = values[i++] + other.values[j++];
+                }
+            }
+            return new Scores(outIds, outValues, n);
+        }
+
+        // bounded min-heap of positions: O(n log k) instead of sorting every match
+        List<Long> top(int limit) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, size) + 1, this::compareRank);
+            for (int i = 0; i < size; i++) {
+                if (heap.size() < limit) {
+                    heap.add(i);
+                } else if (compareRank(i, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(i);
+                }
+            }
+            Long[] ranked = new Long[heap.size()];
+            for (int n = ranked.length - 1; n >= 0; n--) {
+                ranked[n] = ids[heap.poll()];
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        }
+
+        // higher score ranks higher; ties go to the lower id
+        private int compareRank(int a, int b) {
+            int byScore = Double.compare(values[a], values[b]);
+            return byScore != 0 ? byScore : Long.compare(ids[b], ids[a]);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.ecommerce.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -10,8 +15,10 @@ import org.springframework.stereotype.Service;
 // import ca.purchaseHistory.repository.OrderItemRepository;
 // import ca.purchaseHistory.repository.OrderRepository;
 
+import com.ecommerce.dto.OrderHistoryPage;
+import com.ecommerce.dto.OrderLineView;
+import com.ecommerce.dto.OrderSummaryView;
 import com.ecommerce.model.Order;
-import com.ecommerce.model.OrderItem;
 import com.ecommerce.repository.OrderItemRepository;
 import com.ecommerce.repository.OrderRepository;
 
@@ -23,18 +30,62 @@ public class PurchaseHistoryService {
     @Autowired
     private OrderItemRepository orderItemRepo;
 
+    @Autowired
+    private PurchasedProductIndex purchasedProductIndex;
+
     // 查看用户全部订单
     public List<Order> getOrdersByCustomer(Long customerId) {
         return orderRepo.findByCustomerId(customerId);
     }
 
-    // 搜索产品名相关的订单
-    public List<OrderItem> searchProduct(String name) {
-        return orderItemRepo.SearchOrderItemByName(name);
+    // 分页查看订单摘要 (order_date, id) keyset, newest first; throws IllegalArgumentException on a bad cursor
+    public OrderHistoryPage getOrderHistory(Long customerId, String cursor, Integer size) {
+        int pageSize = OrderHistoryPage.clampPageSize(size);
+        OrderHistoryPage.Cursor after = OrderHistoryPage.decodeCursor(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<OrderSummaryView> rows = after == null
+                ? orderRepo.findOrderSummaries(customerId, limit)
+                : orderRepo.findOrderSummariesBefore(customerId, after.orderDate(), after.id(), limit);
+        if (rows.size() <= pageSize) {
+            return new OrderHistoryPage(withItemCounts(rows), null);
+        }
+        List<OrderSummaryView> page = withItemCounts(rows.subList(0, pageSize));
+        return new OrderHistoryPage(page, OrderHistoryPage.encodeCursor(page.get(pageSize - 1)));
+    }
+
+    // 搜索产品名相关的订单 (this customer only; matched in memory, then one lookup for the lines)
+    public List<OrderLineView> searchProduct(Long customerId, String name) {
+        List<Long> productIds = purchasedProductIndex.search(customerId, name);
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return orderItemRepo.findPurchasedLines(customerId, productIds);
+    }
+
+    // 查看订单详情 (only if the order belongs to this customer; empty otherwise)
+    public List<OrderLineView> getOrderDetails(Long customerId, Long id) {
+        return orderItemRepo.findOrderLines(id, customerId);
     }
 
-    // 查看订单详情
-    public List<OrderItem> getOrderDetails(Long id) {
-        return orderItemRepo.findByOrderID(id);
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // one grouped lookup for the page's orders only
+    private List<OrderSummaryView> withItemCounts(List<OrderSummaryView> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        List<Long> orderIds = new ArrayList<>();
+        for (OrderSummaryView order : orders) {
+            orderIds.add(order.getOrderId());
+        }
+        Map<Long, Long> itemCounts = new HashMap<>();
+        for (Object[] row : orderItemRepo.countItemsByOrderIds(orderIds)) {
+            itemCounts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        List<OrderSummaryView> counted = new ArrayList<>();
+        for (OrderSummaryView order : orders) {
+            counted.add(order.withItemCount(itemCounts.getOrDefault(order.getOrderId(), 0L)));
+        }
+        return counted;
     }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.OrderItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PurchasedProductIndex - Which products each customer has bought, searchable by name
+ * Customer -> sorted long[] of product ids, plus a trigram index over the names of every
+ * purchased product; "did I buy X" is an n-gram intersection and a binary search per hit.
+ * Rebuilt on a schedule, so orders placed on other nodes show up here too
+ */
+@Component
+public class PurchasedProductIndex {
+
+    private static final int GRAM = 3;
+    private static final long[] EMPTY = new long[0];
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private volatile State state = new State();
+
+    // ============== INDEX MAINTENANCE ==============
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${purchase.history.index.refresh-ms:900000}",
+               initialDelayString = "${purchase.history.index.refresh-ms:900000}")
+    public synchronized void rebuild() {
+        State rebuilt = new State();
+        // rows of (customerId, productId, productName)
+        for (Object[] row : orderItemRepository.findPurchasedProducts()) {
+            rebuilt.addPurchase((Long) row[0], (Long) row[1], (String) row[2]);
+        }
+        // built aside and swapped, so searches never see a half-loaded index
+        state = rebuilt;
+    }
+
+    /**
+     * Called once an order has committed
+     */
+    public synchronized void recordPurchases(Long customerId, Map<Long, String> products) {
+        if (customerId == null) {
+            return;
+        }
+        for (Map.Entry<Long, String> product : products.entrySet()) {
+            state.addPurchase(customerId, product.getKey(), product.getValue());
+        }
+    }
+
+    /**
+     * Called once a product update has committed; re-indexes the name if anyone has bought the product
+     */
+    public synchronized void updateProductName(Long productId, String productName) {
+        if (productId != null) {
+            state.rename(productId, normalize(productName));
+        }
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * Product ids this customer bought whose name contains the keyword (case-insensitive)
+     */
+    public List<Long> search(Long customerId, String keyword) {
+        State current = state;
+        long[] purchased = customerId != null ? current.purchasesByCustomer.getOrDefault(customerId, EMPTY) : EMPTY;
+        String needle = normalize(keyword);
+        List<Long> matches = new ArrayList<>();
+        if (purchased.length == 0 || needle.isEmpty()) {
+            return matches;
+        }
+
+        if (needle.length() < GRAM) {
+            // too short for a trigram: the customer's own purchases are a small set to check directly
+            for (long productId : purchased) {
+                if (current.nameContains(productId, needle)) {
+                    matches.add(productId);
+                }
+            }
+            return matches;
+        }
+
+        long[] candidates = null;
+        for (String gram : grams(needle)) {
+            long[] posting = current.productsByGram.getOrDefault(gram, EMPTY);
+            candidates = candidates == null ? posting : intersect(candidates, posting);
+            if (candidates.length == 0) {
+                return matches;
+            }
+        }
+        for (long productId : candidates) {
+            // trigrams can match out of order; confirm the substring before the ownership check
+            if (Arrays.binarySearch(purchased, productId) >= 0 && current.nameContains(productId, needle)) {
+                matches.add(productId);
+            }
+        }
+        return matches;
+    }
+
+    public boolean hasPurchased(Long customerId, Long productId) {
+        long[] purchased = customerId != null ? state.purchasesByCustomer.get(customerId) : null;
+        return purchased != null && productId != null && Arrays.binarySearch(purchased, productId) >= 0;
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // copy-on-write sorted insert; readers keep seeing the old array until the swap
+    private static long[] insert(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+        int insertAt = -index - 1;
+        long[] grown = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, grown, 0, insertAt);
+        grown[insertAt] = value;
+        System.arraycopy(sorted, insertAt, grown, insertAt + 1, sorted.length - insertAt);
+        return grown;
+    }
+
+    private static long[] remove(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return sorted;
+        }
+        long[] shrunk = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, shrunk, 0, index);
+        System.arraycopy(sorted, index + 1, shrunk, index, sorted.length - index - 1);
+        return shrunk;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // writers hold the index lock; arrays are replaced, never mutated, so readers need none
+    private static class State {
+        // customerId -> sorted, distinct product ids
+        private final Map<Long, long[]> purchasesByCustomer = new ConcurrentHashMap<>();
+        // trigram -> sorted product ids whose name contains it
+        private final Map<String, long[]> productsByGram = new ConcurrentHashMap<>();
+        private final Map<Long, String> productNames = new ConcurrentHashMap<>();
+
+        private void addPurchase(Long customerId, Long productId, String productName) {
+            if (customerId == null || productId == null) {
+                return;
+            }
+            purchasesByCustomer.put(customerId, insert(purchasesByCustomer.getOrDefault(customerId, EMPTY), productId));
+            String name = normalize(productName);
+            if (productNames.putIfAbsent(productId, name) == null) {
+                for (String gram : grams(name)) {
+                    productsByGram.put(gram, insert(productsByGram.getOrDefault(gram, EMPTY), productId));
+                }
+            }
+        }
+
+        private void rename(long productId, String name) {
+            String previous = productNames.get(productId);
+            if (previous == null || previous.equals(name)) {
+                return;
+            }
+            for (String gram : grams(previous)) {
+                productsByGram.computeIfPresent(gram, (g, ids) -> {
+                    long[] remaining = remove(ids, productId);
+                    return remaining.length == 0 ? null : remaining;
+                });
+            }
+            for (String gram : grams(name)) {
+                productsByGram.put(gram, insert(productsByGram.getOrDefault(gram, EMPTY), productId));
+            }
+            productNames.put(productId, name);
+        }
+
+        private boolean nameContains(long productId, String needle) {
+            String name = productNames.get(productId);
+            return name != null && name.contains(needle);
+        }
+    }
+}
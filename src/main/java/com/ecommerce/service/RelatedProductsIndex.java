@@ -0,0 +1,153 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.OrderItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RelatedProductsIndex - Precomputed related products for the detail page
+ * Neighbours are stored with a fixed stride in a flat long[] keyed by a sorted id array
+ */
+@Component
+public class RelatedProductsIndex {
+
+    public static final int NEIGHBOURS = 4;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new long[0]);
+
+    /**
+     * Related product ids for the given product, best match first
+     */
+    public List<Long> getRelatedIds(Long productId) {
+        List<Long> related = new ArrayList<>(NEIGHBOURS);
+        if (productId == null) {
+            return related;
+        }
+        Snapshot current = snapshot;
+        int position = Arrays.binarySearch(current.productIds, productId);
+        if (position < 0) {
+            return related;
+        }
+        int base = position * NEIGHBOURS;
+        for (int i = 0; i < NEIGHBOURS; i++) {
+            long neighbour = current.neighbours[base + i];
+            if (neighbour == 0L) {
+                break;
+            }
+            related.add(neighbour);
+        }
+        return related;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${related.products.refresh-ms:900000}",
+               initialDelayString = "${related.products.refresh-ms:900000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // rows are (id, category, brand), ordered by id
+        List<Object[]> rows = productRepository.findActiveProductKeys();
+        int count = rows.size();
+        long[] productIds = new long[count];
+        String[] categories = new String[count];
+        String[] brands = new String[count];
+        for (int i = 0; i < count; i++) {
+            Object[] row = rows.get(i);
+            productIds[i] = (Long) row[0];
+            categories[i] = (String) row[1];
+            brands[i] = (String) row[2];
+        }
+
+        // group positions by category and by category+brand; lists stay in id order
+        Map<String, List<Integer>> byCategory = new HashMap<>();
+        Map<String, List<Integer>> byCategoryBrand = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            byCategory.computeIfAbsent(categories[i], k -> new ArrayList<>()).add(i);
+            if (brands[i] != null) {
+                byCategoryBrand.computeIfAbsent(categories[i] + '\u0000' + brands[i], k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // co-purchase partners, strongest first; ranked and capped at NEIGHBOURS in SQL
+        Map<Long, List<Long>> coPurchased = new HashMap<>();
+        for (Object[] pair : orderItemRepository.findCoPurchasedProductPairs(NEIGHBOURS)) {
+            coPurchased.computeIfAbsent(((Number) pair[0]).longValue(), k -> new ArrayList<>(NEIGHBOURS))
+                    .add(((Number) pair[1]).longValue());
+        }
+
+        long[] neighbours = new long[count * NEIGHBOURS];
+        for (int i = 0; i < count; i++) {
+            int base = i * NEIGHBOURS;
+            int filled = 0;
+            for (Long partner : coPurchased.getOrDefault(productIds[i], List.of())) {
+                if (Arrays.binarySearch(productIds, partner) >= 0) {
+                    filled = append(neighbours, base, filled, partner);
+                }
+            }
+            if (filled < NEIGHBOURS && brands[i] != null) {
+                filled = appendFollowing(neighbours, base, filled, productIds, i,
+                        byCategoryBrand.get(categories[i] + '\u0000' + brands[i]));
+            }
+            if (filled < NEIGHBOURS) {
+                appendFollowing(neighbours, base, filled, productIds, i, byCategory.get(categories[i]));
+            }
+        }
+
+        snapshot = new Snapshot(productIds, neighbours);
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // walks the group starting after the product itself, so neighbours spread across the group
+    private int appendFollowing(long[] neighbours, int base, int filled, long[] productIds, int self, List<Integer> group) {
+        if (group == null || group.size() < 2) {
+            return filled;
+        }
+        int start = Collections.binarySearch(group, self);
+        for (int step = 1; step < group.size() && filled < NEIGHBOURS; step++) {
+            int candidate = group.get((start + step) % group.size());
+            filled = append(neighbours, base, filled, productIds[candidate]);
+        }
+        return filled;
+    }
+
+    private int append(long[] neighbours, int base, int filled, long productId) {
+        if (filled >= NEIGHBOURS) {
+            return filled;
+        }
+        for (int i = 0; i < filled; i++) {
+            if (neighbours[base + i] == productId) {
+                return filled;
+            }
+        }
+        neighbours[base + filled] = productId;
+        return filled + 1;
+    }
+
+    private static final class Snapshot {
+        private final long[] productIds;
+        private final long[] neighbours;
+
+        private Snapshot(long[] productIds, long[] neighbours) {
+            this.productIds = productIds;
+            this.neighbours = neighbours;
+        }
+    }
+}
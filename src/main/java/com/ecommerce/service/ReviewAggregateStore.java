@@ -0,0 +1,100 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ReviewSummary;
+import com.ecommerce.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReviewAggregateStore - Per-product review count, rating sum and 1-5 histogram
+ * Loaded from a grouped count, kept current by saveReview and rebuilt on a schedule, so ratings
+ * can be shown on listings and detail pages without reading the reviews table. Each product's
+ * counters are an immutable array replaced on every write, so a summary is always one consistent snapshot
+ */
+@Component
+public class ReviewAggregateStore {
+
+    // counter layout: [count, ratingSum, oneStar, twoStar, threeStar, fourStar, fiveStar]
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int HISTOGRAM = 2;
+    private static final int SLOTS = HISTOGRAM + 5;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    // writers share the instance lock with rebuild(), so a record lands in the map that gets published
+    private volatile Map<Long, long[]> aggregates = new ConcurrentHashMap<>();
+
+    // ============== MAINTENANCE ==============
+
+    // also picks up reviews written on other nodes or outside the app
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${review.aggregates.refresh-ms:600000}",
+               initialDelayString = "${review.aggregates.refresh-ms:600000}")
+    public synchronized void rebuild() {
+        Map<Long, long[]> rebuilt = new ConcurrentHashMap<>();
+        // rows of (productId, rating, count)
+        for (Object[] row : reviewRepository.countRatingsByProduct()) {
+            long count = ((Number) row[2]).longValue();
+            rebuilt.compute((Long) row[0], (id, counters) -> add(counters, ((Number) row[1]).intValue(), count));
+        }
+        aggregates = rebuilt;
+    }
+
+    public synchronized void record(Long productId, int rating) {
+        recordAll(productId, rating, 1);
+    }
+
+    /**
+     * Adds {@code count} reviews with the same rating, e.g. once per product per imported batch
+     */
+    public synchronized void recordAll(Long productId, int rating, long count) {
+        if (productId == null || rating < 1 || rating > 5 || count <= 0) {
+            return;
+        }
+        aggregates.compute(productId, (id, counters) -> add(counters, rating, count));
+    }
+
+    // ============== QUERIES ==============
+
+    public ReviewSummary getSummary(Long productId) {
+        long[] counters = productId != null ? aggregates.get(productId) : null;
+        if (counters == null) {
+            return ReviewSummary.empty(productId);
+        }
+        long[] histogram = Arrays.copyOfRange(counters, HISTOGRAM, HISTOGRAM + 5);
+        return new ReviewSummary(productId, counters[COUNT], counters[SUM], histogram);
+    }
+
+    public Map<Long, ReviewSummary> getSummaries(Collection<Long> productIds) {
+        Map<Long, ReviewSummary> summaries = new HashMap<>();
+        for (Long productId : productIds) {
+            summaries.put(productId, getSummary(productId));
+        }
+        return summaries;
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // copy-on-write: a published array is never changed, so readers need no lock
+    private static long[] add(long[] counters, int rating, long count) {
+        if (rating < 1 || rating > 5) {
+            return counters;
+        }
+        long[] updated = counters != null ? counters.clone() : new long[SLOTS];
+        updated[HISTOGRAM + rating - 1] += count;
+        updated[SUM] += (long) rating * count;
+        updated[COUNT] += count;
+        return updated;
+    }
+}
@@ -0,0 +1,215 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ReviewImportResult;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.CsvUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ReviewImportService - Streaming bulk import of marketplace reviews (NDJSON or CSV)
+ * Lines are parsed one at a time and written in batches: one IN lookup each for products
+ * and customers, one JDBC batch insert, and one review aggregate update per batch
+ */
+@Service
+public class ReviewImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int MAX_COMMENT_LENGTH = 1000;
+    private static final String INSERT_SQL =
+            "INSERT INTO reviews (rating, comment, created_time, product_id, customer_id) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ReviewAggregateStore reviewAggregateStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ReviewImportService(PlatformTransactionManager transactionManager,
+                               @Value("${review.import.batch-size:500}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * CSV columns: productId,customerId,rating,comment[,createdTime]; a header line is optional.
+     * NDJSON objects use the same field names. Bad lines are rejected and reported, not fatal.
+     */
+    public ReviewImportResult importReviews(InputStream inputStream, Format format) throws IOException {
+        ReviewImportResult result = new ReviewImportResult();
+        List<ReviewRow> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && lineNumber == 1 && !Character.isDigit(line.trim().charAt(0))) {
+                continue; // header
+            }
+            try {
+                batch.add(format == Format.NDJSON ? parseJson(line, lineNumber) : parseCsv(line, lineNumber));
+            } catch (IllegalArgumentException e) {
+                result.reject(lineNumber, e.getMessage());
+                continue;
+            }
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, result);
+        }
+        return result;
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private void writeBatch(List<ReviewRow> batch, ReviewImportResult result) {
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (ReviewRow row : batch) {
+            productIds.add(row.productId());
+            customerIds.add(row.customerId());
+        }
+        Set<Long> knownProducts = new HashSet<>(productRepository.findExistingIds(productIds));
+        Set<Long> knownCustomers = new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        // productId -> reviews per star, applied to the aggregates once the batch commits
+        Map<Long, long[]> ratingCounts = new HashMap<>();
+        for (ReviewRow row : batch) {
+            if (!knownProducts.contains(row.productId())) {
+                result.reject(row.lineNumber(), "unknown product " + row.productId());
+            } else if (!knownCustomers.contains(row.customerId())) {
+                result.reject(row.lineNumber(), "unknown customer " + row.customerId());
+            } else {
+                args.add(new Object[] { row.rating(), row.comment(), Timestamp.valueOf(row.createdTime()),
+                        row.productId(), row.customerId() });
+                ratingCounts.computeIfAbsent(row.productId(), id -> new long[5])[row.rating() - 1]++;
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, args));
+        for (Map.Entry<Long, long[]> entry : ratingCounts.entrySet()) {
+            long[] counts = entry.getValue();
+            for (int star = 1; star <= 5; star++) {
+                reviewAggregateStore.recordAll(entry.getKey(), star, counts[star - 1]);
+            }
+        }
+        result.addImported(args.size());
+    }
+
+    private ReviewRow parseJson(String line, long lineNumber) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        return toRow(lineNumber, text(node, "productId"), text(node, "customerId"), text(node, "rating"),
+                text(node, "comment"), text(node, "createdTime"));
+    }
+
+    private ReviewRow parseCsv(String line, long lineNumber) {
+        List<String> fields = CsvUtils.splitLine(line);
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("expected productId,customerId,rating,comment[,createdTime]");
+        }
+        return toRow(lineNumber, fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                fields.size() > 4 ? fields.get(4) : null);
+    }
+
+    private static ReviewRow toRow(long lineNumber, String productId, String customerId, String rating,
+                                   String comment, String createdTime) {
+        int stars = parseInt(rating, "rating");
+        if (stars < 1 || stars > 5) {
+            throw new IllegalArgumentException("rating must be 1 to 5");
+        }
+        if (comment == null || comment.trim().isEmpty()) {
+            throw new IllegalArgumentException("comment is empty");
+        }
+        if (comment.length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("comment is longer than " + MAX_COMMENT_LENGTH + " characters");
+        }
+        LocalDateTime created;
+        try {
+            created = createdTime == null || createdTime.isBlank()
+                    ? LocalDateTime.now() : LocalDateTime.parse(createdTime.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("createdTime must be ISO-8601");
+        }
+        return new ReviewRow(lineNumber, parseLong(productId, "productId"), parseLong(customerId, "customerId"),
+                stars, comment, created);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static long parseLong(String value, String field) {
+        try {
+            return Long.parseLong(value == null ? "" : value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number");
+        }
+    }
+
+    private static int parseInt(String value, String field) {
+        try {
+            return Integer.parseInt(value == null ? "" : value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number");
+        }
+    }
+
+    private record ReviewRow(long lineNumber, long productId, long customerId, int rating,
+                             String comment, LocalDateTime createdTime) {}
+}
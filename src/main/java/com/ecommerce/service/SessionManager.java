@@ -2,6 +2,8 @@ package com.ecommerce.service;
 
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import com.ecommerce.model.SessionCart;
 import com.ecommerce.model.User;
 import com.ecommerce.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,7 +14,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class SessionManager {
@@ -20,6 +21,9 @@ public class SessionManager {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private PersistentSessionStore persistentSessionStore;
+    
     // Session Keys
     private static final String USER_SESSION_KEY = "currentUser";
     private static final String USER_ID_KEY = "userId";
@@ -36,9 +40,9 @@ public class SessionManager {
     private static final int MAX_BROWSE_HISTORY = 20;
     private static final int DEFAULT_SESSION_TIMEOUT_MINUTES = 30;
     
-    // Cross-session persistence (in-memory store)
-    private static final Map<String, Map<String, Object>> PERSISTENT_CART_STORE = new ConcurrentHashMap<>();
-    private static final Map<String, List<Map<String, Object>>> PERSISTENT_BROWSE_HISTORY = new ConcurrentHashMap<>();
+    // Activity timestamps younger than this are not rewritten, so reads don't turn into session UPDATEs
+    @Value("${session.activity.write-interval-ms:60000}")
+    private long activityWriteIntervalMs;
 
     // ============== USER SESSION MANAGEMENT ==============
     
@@ -88,35 +92,28 @@ public class SessionManager {
 
     // ============== CART MANAGEMENT ==============
     
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> getShoppingCart(HttpServletRequest request) {
+    public SessionCart getShoppingCart(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session != null && isSessionValid(session)) {
             updateLastActivity(session);
-            Map<String, Object> cart = (Map<String, Object>) session.getAttribute(CART_SESSION_KEY);
-            return cart != null ? cart : new HashMap<>();
+            // carts stored by older versions as nested maps are dropped rather than migrated
+            Object cart = session.getAttribute(CART_SESSION_KEY);
+            return cart instanceof SessionCart ? (SessionCart) cart : new SessionCart();
         }
-        return new HashMap<>();
+        return new SessionCart();
     }
     
     public void addToCart(HttpServletRequest request, Long productId, String productName, Double price, Integer quantity) {
         if (!isLoggedIn(request)) {
             throw new IllegalStateException("User must be logged in to add items to cart");
         }
+        if (productId == null || price == null || quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Product, price and a positive quantity are required");
+        }
         
         HttpSession session = request.getSession();
-        Map<String, Object> cart = getShoppingCart(request);
-        
-        Map<String, Object> cartItem = new HashMap<>();
-        cartItem.put("productId", productId);
-        cartItem.put("productName", productName);
-        cartItem.put("price", price);
-        cartItem.put("quantity", quantity);
-        cartItem.put("subtotal", price * quantity);
-        cartItem.put("addedAt", System.currentTimeMillis());
-        cartItem.put("addedDate", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        
-        cart.put(productId.toString(), cartItem);
+        SessionCart cart = getShoppingCart(request);
+        cart.put(productId, productName, Math.round(price * 100), quantity);
         session.setAttribute(CART_SESSION_KEY, cart);
         updateLastActivity(session);
         
@@ -131,8 +128,10 @@ public class SessionManager {
             throw new IllegalStateException("User must be logged in to modify cart");
         }
         
-        Map<String, Object> cart = getShoppingCart(request);
-        cart.remove(productId.toString());
+        SessionCart cart = getShoppingCart(request);
+        if (!cart.remove(productId)) {
+            return;
+        }
         
         HttpSession session = request.getSession();
         session.setAttribute(CART_SESSION_KEY, cart);
@@ -150,8 +149,8 @@ public class SessionManager {
         }
         
         HttpSession session = request.getSession();
-        Map<String, Object> emptyCart = new HashMap<>();
-        session.setAttribute(CART_SESSION_KEY, emptyCart);
+        SessionCart emptyCart = new SessionCart();
+        setAttributeIfChanged(session, CART_SESSION_KEY, emptyCart);
         updateLastActivity(session);
         
         Long userId = getCurrentUserId(request);
@@ -161,25 +160,11 @@ public class SessionManager {
     }
 
     public Double getCartTotal(HttpServletRequest request) {
-        Map<String, Object> cart = getShoppingCart(request);
-        return cart.values().stream()
-                .mapToDouble(item -> {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> cartItem = (Map<String, Object>) item;
-                    return (Double) cartItem.get("subtotal");
-                })
-                .sum();
+        return getShoppingCart(request).getTotal();
     }
     
     public Integer getCartItemCount(HttpServletRequest request) {
-        Map<String, Object> cart = getShoppingCart(request);
-        return cart.values().stream()
-                .mapToInt(item -> {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> cartItem = (Map<String, Object>) item;
-                    return (Integer) cartItem.get("quantity");
-                })
-                .sum();
+        return getShoppingCart(request).getItemCount();
     }
 
     // ============== BROWSE HISTORY ==============
@@ -214,7 +199,7 @@ public class SessionManager {
         history.add(0, historyItem);
         
         if (history.size() > MAX_BROWSE_HISTORY) {
-            history = history.subList(0, MAX_BROWSE_HISTORY);
+            history = new ArrayList<>(history.subList(0, MAX_BROWSE_HISTORY));
         }
         
         session.setAttribute(BROWSE_HISTORY_KEY, history);
@@ -233,7 +218,7 @@ public class SessionManager {
         
         HttpSession session = request.getSession();
         List<Map<String, Object>> emptyHistory = new ArrayList<>();
-        session.setAttribute(BROWSE_HISTORY_KEY, emptyHistory);
+        setAttributeIfChanged(session, BROWSE_HISTORY_KEY, emptyHistory);
         updateLastActivity(session);
         
         Long userId = getCurrentUserId(request);
@@ -307,8 +292,8 @@ public class SessionManager {
     public void extendSession(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session != null) {
-            updateLastActivity(session);
-            session.setMaxInactiveInterval(DEFAULT_SESSION_TIMEOUT_MINUTES * 60);
+            session.setAttribute(LAST_ACTIVITY_KEY, System.currentTimeMillis());
+            setMaxInactiveIntervalIfChanged(session, DEFAULT_SESSION_TIMEOUT_MINUTES * 60);
         }
     }
     
@@ -316,10 +301,9 @@ public class SessionManager {
     
     private void savePersistentData(Long userId, HttpSession session) {
         if (userId != null) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> cart = (Map<String, Object>) session.getAttribute(CART_SESSION_KEY);
-            if (cart != null) {
-                savePersistentCart(userId, cart);
+            Object cart = session.getAttribute(CART_SESSION_KEY);
+            if (cart instanceof SessionCart) {
+                savePersistentCart(userId, (SessionCart) cart);
             }
             
             @SuppressWarnings("unchecked")
@@ -332,38 +316,58 @@ public class SessionManager {
     
     private void restorePersistentData(Long userId, HttpSession session) {
         if (userId != null) {
-            Map<String, Object> persistentCart = PERSISTENT_CART_STORE.get(userId.toString());
+            SessionCart persistentCart = persistentSessionStore.loadCart(userId);
             if (persistentCart != null) {
-                session.setAttribute(CART_SESSION_KEY, new HashMap<>(persistentCart));
+                session.setAttribute(CART_SESSION_KEY, new SessionCart(persistentCart));
             }
             
-            List<Map<String, Object>> persistentHistory = PERSISTENT_BROWSE_HISTORY.get(userId.toString());
+            List<Map<String, Object>> persistentHistory = persistentSessionStore.loadBrowseHistory(userId);
             if (persistentHistory != null) {
                 session.setAttribute(BROWSE_HISTORY_KEY, new ArrayList<>(persistentHistory));
             }
         }
     }
     
-    private void savePersistentCart(Long userId, Map<String, Object> cart) {
-        PERSISTENT_CART_STORE.put(userId.toString(), new HashMap<>(cart));
+    // The store serializes the value as it is saved, so later changes to the session copy cannot leak into it
+    private void savePersistentCart(Long userId, SessionCart cart) {
+        persistentSessionStore.saveCart(userId, cart);
     }
     
     private void savePersistentBrowseHistory(Long userId, List<Map<String, Object>> history) {
-        PERSISTENT_BROWSE_HISTORY.put(userId.toString(), new ArrayList<>(history));
+        persistentSessionStore.saveBrowseHistory(userId, history);
     }
     
     private void initializeUserSession(HttpSession session) {
         if (session.getAttribute(CART_SESSION_KEY) == null) {
-            session.setAttribute(CART_SESSION_KEY, new HashMap<String, Object>());
+            session.setAttribute(CART_SESSION_KEY, new SessionCart());
         }
         if (session.getAttribute(BROWSE_HISTORY_KEY) == null) {
             session.setAttribute(BROWSE_HISTORY_KEY, new ArrayList<Map<String, Object>>());
         }
-        session.setMaxInactiveInterval(DEFAULT_SESSION_TIMEOUT_MINUTES * 60);
+        setMaxInactiveIntervalIfChanged(session, DEFAULT_SESSION_TIMEOUT_MINUTES * 60);
     }
     
+    // Coalesced: only rewritten once the stored timestamp is older than the write interval
     private void updateLastActivity(HttpSession session) {
-        session.setAttribute(LAST_ACTIVITY_KEY, System.currentTimeMillis());
+        long now = System.currentTimeMillis();
+        Long lastActivity = (Long) session.getAttribute(LAST_ACTIVITY_KEY);
+        if (lastActivity == null || now - lastActivity >= activityWriteIntervalMs) {
+            session.setAttribute(LAST_ACTIVITY_KEY, now);
+        }
+    }
+    
+    // Every setAttribute is a row write in the JDBC session store, so skip values that are already there
+    private void setAttributeIfChanged(HttpSession session, String key, Object value) {
+        Object current = session.getAttribute(key);
+        if (current == null || !current.equals(value)) {
+            session.setAttribute(key, value);
+        }
+    }
+    
+    private void setMaxInactiveIntervalIfChanged(HttpSession session, int seconds) {
+        if (session.getMaxInactiveInterval() != seconds) {
+            session.setMaxInactiveInterval(seconds);
+        }
     }
 
     public void saveCheckoutData(HttpServletRequest request, Map<String, Object> checkoutData) {
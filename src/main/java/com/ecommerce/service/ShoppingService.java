@@ -5,7 +5,10 @@ package com.ecommerce.service;
 import java.util.List;
 import java.util.NoSuchElementException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.transaction.Transactional;
 // import sg.nus.iss.shoppingCart.model.Product;
@@ -16,6 +19,10 @@ import jakarta.transaction.Transactional;
 // import sg.nus.iss.shoppingCart.repository.CustomerRepository;
 // import sg.nus.iss.shoppingCart.interfacemethods.ProductInterface;
 
+import com.ecommerce.dto.ProductPage;
+import com.ecommerce.dto.ReviewPage;
+import com.ecommerce.dto.ReviewSummary;
+import com.ecommerce.dto.ReviewView;
 import com.ecommerce.model.Product;
 import com.ecommerce.model.Review;
 import com.ecommerce.model.Customer;
@@ -34,12 +41,33 @@ public class ShoppingService implements ProductInterface  {
     private CustomerRepository customerRepository;
 	@Autowired
     private ReviewRepository reviewRepository;
+	@Autowired
+    private ProductImplementation productImplementation;
+	@Autowired
+    private FeaturedProductsCache featuredProductsCache;
+	@Autowired
+    private ReviewAggregateStore reviewAggregateStore;
+	@Autowired
+    private ProductCatalogCache productCatalogCache;
 	
     /** Product Service */
     public Product getProductById(Long productId) {
-    	// Call Repository to query, throw exception if no result
-        return productRepository.findById(productId)
-                .orElseThrow(() -> new NoSuchElementException("Product does not exist, product ID：" + productId));
+    	// Read through the catalog cache, throw exception if no result
+        Product product = productCatalogCache.getProduct(productId);
+        if (product == null) {
+            throw new NoSuchElementException("Product does not exist, product ID：" + productId);
+        }
+        return product;
+    }
+
+    @Override
+    public List<Product> findByCategory(String category) {
+        return productCatalogCache.getByCategory(category);
+    }
+
+    @Override
+    public List<Product> findByBrand(String brand) {
+        return productCatalogCache.getByBrand(brand);
     }
     
     @Override
@@ -57,13 +85,28 @@ public class ShoppingService implements ProductInterface  {
     @Override
     @Transactional
     public Product findProductById(Long id) {
-        return productRepository.findById(id).get();
+        return getProductById(id);
+    }
+
+    // catalog reads have a single implementation in ProductImplementation
+    @Override
+    public List<Product> searchProducts(String keyword) {
+        return productImplementation.searchProducts(keyword);
+    }
+
+    @Override
+    public ProductPage getProductPage(String cursor, Integer size) {
+        return productImplementation.getProductPage(cursor, size);
+    }
+
+    @Override
+    public List<Product> getRelatedProducts(Long productId) {
+        return productImplementation.getRelatedProducts(productId);
     }
 
     @Override
     public List<Product> getFeaturedProducts(int limit) {
-        List<Product> allProducts = productRepository.findAll();
-        return allProducts.subList(0, Math.min(limit, allProducts.size()));
+        return featuredProductsCache.getFeaturedProducts(limit);
     }
     
     /** Customer Service */
@@ -95,11 +138,46 @@ public class ShoppingService implements ProductInterface  {
         review.setComment(comment);
         review.setProduct(product);
         review.setCustomer(customer);
-        return reviewRepository.save(review);
+        Review savedReview = reviewRepository.save(review);
+        // 5. Count it in the product's rating aggregate once the insert is committed
+        recordRatingAfterCommit(product.getId(), rating);
+        return savedReview;
+    }
+    
+    /** Keyset page of flat review rows, newest first; throws IllegalArgumentException on a bad cursor */
+    public ReviewPage getReviewPage(Long productId, String cursor, Integer size) {
+        int pageSize = ReviewPage.clampPageSize(size);
+        ReviewPage.Cursor after = ReviewPage.decodeCursor(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ReviewView> rows = after == null
+                ? reviewRepository.findReviewFeed(productId, limit)
+                : reviewRepository.findReviewFeedBefore(productId, after.createdTime(), after.id(), limit);
+        if (rows.size() <= pageSize) {
+            return new ReviewPage(rows, null);
+        }
+        List<ReviewView> page = rows.subList(0, pageSize);
+        return new ReviewPage(page, ReviewPage.encodeCursor(page.get(pageSize - 1)));
+    }
+    
+    public ReviewSummary getReviewSummary(Long productId) {
+        return reviewAggregateStore.getSummary(productId);
     }
     
     public List<Review> getReviewsByProductId(Long productId) {
         return reviewRepository.findByProductIdOrderByCreatedTimeDesc(productId);
     }
+    
+    private void recordRatingAfterCommit(Long productId, int rating) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reviewAggregateStore.record(productId, rating);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reviewAggregateStore.record(productId, rating);
+            }
+        });
+    }
 
 }
@@ -0,0 +1,82 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SimulatedPaymentGateway - Local stand-in for a card gateway
+ * Blocks for a configurable latency (plus jitter) and approves every request, so checkout
+ * throughput can be measured against realistic gateway I/O without an external service.
+ * Like a real gateway it remembers recent charges by reference, for retries and lookups
+ */
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final int MAX_REMEMBERED = 100_000;
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final Map<String, CompletableFuture<Boolean>> charges = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Boolean>> eldest) {
+            return size() > MAX_REMEMBERED;
+        }
+    };
+
+    public SimulatedPaymentGateway(@Value("${payment.gateway.latency-ms:200}") long latencyMs,
+                                   @Value("${payment.gateway.jitter-ms:50}") long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+    }
+
+    @Override
+    public boolean charge(Payment payment, double amount) {
+        String reference = payment.getIdempotencyKey();
+        if (reference == null) {
+            return authorise();
+        }
+        CompletableFuture<Boolean> charge = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing;
+        synchronized (charges) {
+            existing = charges.putIfAbsent(reference, charge);
+        }
+        if (existing != null) {
+            return existing.join(); // a retry of a known charge: same result, no second charge
+        }
+        boolean approved = authorise();
+        charge.complete(approved);
+        return approved;
+    }
+
+    @Override
+    public PaymentOutcome lookup(String reference) {
+        CompletableFuture<Boolean> charge;
+        synchronized (charges) {
+            charge = charges.get(reference);
+        }
+        if (charge == null) {
+            return PaymentOutcome.DECLINED;
+        }
+        if (!charge.isDone()) {
+            return PaymentOutcome.PENDING;
+        }
+        return charge.join() ? PaymentOutcome.APPROVED : PaymentOutcome.DECLINED;
+    }
+
+    private boolean authorise() {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+}
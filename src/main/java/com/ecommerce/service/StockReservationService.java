@@ -0,0 +1,401 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.CartItem;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * StockReservationService - Reserves stock for checkout without row locks in the request thread
+ * Availability is tracked in striped in-memory counters; the database is brought in line by a
+ * background flush of conditional UPDATE batches, which remain the final guard across nodes.
+ * Deltas leave the pending set only once written, and counters are resynced from the database
+ * on every flush they are touched by and whenever they are older than the counter TTL.
+ */
+@Service
+public class StockReservationService implements MeterBinder {
+
+    private static final int STRIPES = 64;
+    private static final int RESYNC_CHUNK = 500;
+
+    private static final String SELECT_STOCK_SQL = "SELECT stock_quantity FROM products WHERE id = ?";
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Value("${checkout.reservation.timeout-ms:900000}")
+    private long reservationTimeoutMs;
+
+    @Value("${checkout.reservation.counter-ttl-ms:30000}")
+    private long counterTtlMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // flushes and resyncs hold it exclusively; cold counter loads share it, so a load can never
+    // read the row and the pending delta on opposite sides of a flush
+    private final ReentrantReadWriteLock syncLock = new ReentrantReadWriteLock();
+
+    // productId -> units this node believes are available; counters are updated in place, never replaced
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final Map<Long, Long> syncedAt = new ConcurrentHashMap<>();
+    // productId -> net change not yet written to the database (negative = reserved)
+    private final Map<Long, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // productId -> units sold here that the row could not cover at the last flush; retried every flush
+    private final Map<Long, Integer> conflicts = new ConcurrentHashMap<>();
+    private final LongAdder conflictCount = new LongAdder();
+
+    public StockReservationService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // ============== RESERVATIONS ==============
+
+    /**
+     * Reserves every line or nothing. Returns the reservation id, or null when any product is short.
+     */
+    public String reserve(List<CartItem> cartItems) {
+        // merge duplicate products; TreeMap also gives a stable lock order
+        TreeMap<Long, Integer> lines = new TreeMap<>();
+        for (CartItem item : cartItems) {
+            lines.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        if (lines.isEmpty()) {
+            return null;
+        }
+
+        long[] productIds = lines.keySet().stream().mapToLong(Long::longValue).toArray();
+        int[] quantities = lines.values().stream().mapToInt(Integer::intValue).toArray();
+        // load the counters before taking locks so cold loads don't hold a stripe
+        AtomicInteger[] counters = new AtomicInteger[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            counters[i] = counter(productIds[i]);
+        }
+
+        int[] lockOrder = lockOrder(productIds);
+        for (int stripe : lockOrder) {
+            stripes[stripe].lock();
+        }
+        try {
+            for (int i = 0; i < productIds.length; i++) {
+                if (counters[i].get() < quantities[i]) {
+                    return null;
+                }
+            }
+            for (int i = 0; i < productIds.length; i++) {
+                counters[i].addAndGet(-quantities[i]);
+                pendingDeltas.computeIfAbsent(productIds[i], id -> new AtomicInteger()).addAndGet(-quantities[i]);
+            }
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                stripes[lockOrder[i]].unlock();
+            }
+        }
+
+        String reservationId = UUID.randomUUID().toString();
+        reservations.put(reservationId, new Reservation(productIds, quantities,
+                System.currentTimeMillis() + reservationTimeoutMs));
+        return reservationId;
+    }
+
+    /**
+     * The order was placed; the reserved units stay sold
+     */
+    public void confirm(String reservationId) {
+        if (reservationId != null) {
+            reservations.remove(reservationId);
+        }
+    }
+
+    /**
+     * Payment failed or the reservation timed out; the units go back on sale
+     */
+    public void release(String reservationId) {
+        if (reservationId == null) {
+            return;
+        }
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return;
+        }
+        for (int i = 0; i < reservation.productIds.length; i++) {
+            giveBack(reservation.productIds[i], reservation.quantities[i]);
+        }
+    }
+
+    /**
+     * The charge outlived the gateway timeout; the units stay reserved past the timeout
+     * until the payment is reconciled and the reservation confirmed or released
+     */
+    public void hold(String reservationId) {
+        Reservation reservation = reservationId != null ? reservations.get(reservationId) : null;
+        if (reservation != null) {
+            reservation.held = true;
+        }
+    }
+
+    /**
+     * Puts back units whose reservation did not survive a restart, e.g. for an order declined on reconcile
+     */
+    public void restock(Map<Long, Integer> quantities) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            giveBack(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.reservation.sweep-ms:30000}")
+    public void releaseExpired() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Reservation> entry : reservations.entrySet()) {
+            if (!entry.getValue().held && entry.getValue().expiresAt < now) {
+                release(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Units sold on this node that the database could not cover, by product. They stay pending,
+     * keep the counter below zero so nothing more is sold, and apply once the product is restocked.
+     */
+    public Map<Long, Integer> getConflicts() {
+        return Map.copyOf(conflicts);
+    }
+
+    // ============== DATABASE SYNC ==============
+
+    @Scheduled(fixedDelayString = "${checkout.reservation.flush-ms:500}")
+    @PreDestroy
+    public void flush() {
+        syncLock.writeLock().lock();
+        try {
+            // snapshot only: a delta leaves the pending set once it is in the database
+            Map<Long, Integer> deltas = new TreeMap<>();
+            for (Map.Entry<Long, AtomicInteger> entry : pendingDeltas.entrySet()) {
+                int delta = entry.getValue().get();
+                if (delta != 0) {
+                    deltas.put(entry.getKey(), delta);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                write(deltas);
+            }
+
+            Set<Long> stale = new LinkedHashSet<>(deltas.keySet());
+            long staleBefore = System.currentTimeMillis() - counterTtlMs;
+            for (Map.Entry<Long, Long> entry : syncedAt.entrySet()) {
+                if (entry.getValue() < staleBefore) {
+                    stale.add(entry.getKey());
+                }
+            }
+            resync(stale);
+
+            if (!deltas.isEmpty()) {
+                // stock_quantity changed behind JPA; cached product snapshots would show the old value
+                productCatalogCache.evictSnapshots(deltas.keySet());
+            }
+        } finally {
+            syncLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads every counter from the database, e.g. after stock_quantity was rewritten in bulk
+     */
+    public void resyncAll() {
+        syncLock.writeLock().lock();
+        try {
+            resync(new ArrayList<>(available.keySet()));
+        } finally {
+            syncLock.writeLock().unlock();
+        }
+    }
+
+    // ============== METRICS ==============
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.reservation.conflicts", conflictCount, LongAdder::sum)
+                .description("Flushes that found less stock in the database than was sold here")
+                .register(registry);
+        Gauge.builder("stock.reservation.conflict.units", conflicts,
+                        c -> c.values().stream().mapToInt(Integer::intValue).sum())
+                .description("Units sold but not yet covered by stock in the database")
+                .register(registry);
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // both batches commit together, so a failure leaves every delta pending for the next flush
+    private void write(Map<Long, Integer> deltas) {
+        List<Object[]> decrements = new ArrayList<>();
+        List<Long> decrementIds = new ArrayList<>();
+        List<Object[]> increments = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            int delta = entry.getValue();
+            if (delta < 0) {
+                decrements.add(new Object[] { -delta, entry.getKey(), -delta });
+                decrementIds.add(entry.getKey());
+            } else {
+                increments.add(new Object[] { delta, entry.getKey() });
+            }
+        }
+
+        int[] updated = transactionTemplate.execute(status -> {
+            if (!increments.isEmpty()) {
+                jdbcTemplate.batchUpdate(INCREMENT_SQL, increments);
+            }
+            return decrements.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(DECREMENT_SQL, decrements);
+        });
+
+        Set<Long> uncovered = new LinkedHashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                uncovered.add(decrementIds.get(i));
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            Long productId = entry.getKey();
+            if (uncovered.contains(productId)) {
+                // oversold: keep the delta pending and report it instead of dropping the sale
+                if (conflicts.put(productId, -entry.getValue()) == null) {
+                    conflictCount.increment();
+                }
+                continue;
+            }
+            pendingDeltas.get(productId).addAndGet(-entry.getValue());
+            conflicts.remove(productId);
+        }
+    }
+
+    private void giveBack(long productId, int quantity) {
+        AtomicInteger counter = counter(productId);
+        ReentrantLock lock = stripes[stripe(productId)];
+        lock.lock();
+        try {
+            counter.addAndGet(quantity);
+            pendingDeltas.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(quantity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller holds the write lock, so no flush can move stock between the read and the set
+    private void resync(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += RESYNC_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + RESYNC_CHUNK));
+            Map<Long, Integer> stock = new HashMap<>();
+            jdbcTemplate.query("SELECT id, stock_quantity FROM products WHERE id IN ("
+                            + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")",
+                    rs -> {
+                        stock.put(rs.getLong(1), rs.getInt(2));
+                    }, chunk.toArray());
+            long now = System.currentTimeMillis();
+            for (Long productId : chunk) {
+                ReentrantLock lock = stripes[stripe(productId)];
+                lock.lock();
+                try {
+                    AtomicInteger counter = available.get(productId);
+                    if (counter != null) {
+                        counter.set(stock.getOrDefault(productId, 0) + pending(productId));
+                        syncedAt.put(productId, now);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    // loaded outside computeIfAbsent and outside any stripe lock held by the caller
+    private AtomicInteger counter(long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        syncLock.readLock().lock();
+        try {
+            List<Integer> rows = jdbcTemplate.query(SELECT_STOCK_SQL, (rs, rowNum) -> rs.getInt(1), productId);
+            int stock = rows.isEmpty() ? 0 : rows.get(0);
+            ReentrantLock lock = stripes[stripe(productId)];
+            lock.lock();
+            try {
+                counter = available.get(productId);
+                if (counter == null) {
+                    // units reserved here but not flushed yet are not reflected in the row
+                    counter = new AtomicInteger(stock + pending(productId));
+                    available.put(productId, counter);
+                    syncedAt.put(productId, System.currentTimeMillis());
+                }
+                return counter;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            syncLock.readLock().unlock();
+        }
+    }
+
+    private int pending(long productId) {
+        AtomicInteger pending = pendingDeltas.get(productId);
+        return pending != null ? pending.get() : 0;
+    }
+
+    private int[] lockOrder(long[] productIds) {
+        return Arrays.stream(productIds).mapToInt(StockReservationService::stripe).distinct().sorted().toArray();
+    }
+
+    private static int stripe(long productId) {
+        return (int) ((productId ^ (productId >>> 32)) & (STRIPES - 1));
+    }
+
+    private static final class Reservation {
+        private final long[] productIds;
+        private final int[] quantities;
+        private final long expiresAt;
+        // awaiting a payment outcome: never released by the timeout sweep
+        private volatile boolean held;
+
+        private Reservation(long[] productIds, int[] quantities, long expiresAt) {
+            this.productIds = productIds;
+            this.quantities = quantities;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.service;
 import com.ecommerce.model.User;
 import com.ecommerce.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -17,11 +18,13 @@ import java.util.List;
 public class UserService implements UserServiceInterface {
     
     private final UserRepository userRepository;
-    // Note: Password encryption should be added for production
-    // private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final FailedLoginCache failedLoginCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher, FailedLoginCache failedLoginCache) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.failedLoginCache = failedLoginCache;
     }
     
     // Core user operations
@@ -50,26 +53,46 @@ public class UserService implements UserServiceInterface {
         }
         
         // Set default values
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         user.setIsActive(true);
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
+        failedLoginCache.invalidate(user.getUsername(), user.getEmail());
         return userRepository.save(user);
     }
 
-    @Transactional(readOnly = true)
+    // One indexed lookup by username or email; the password is checked in memory.
+    // No surrounding transaction: the lookup and the re-hash save each run in the repository's
+    // own short transaction, so the deliberately slow hashing never holds a pooled connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User authenticateUser(String username, String password) {
         if (username == null || password == null) {
             return null;
         }
+        if (failedLoginCache.isKnownFailure(username, password)) {
+            return null;
+        }
         
-        // Try username first, then email
-        User user = userRepository.findByUsernameAndPassword(username, password);
+        User user = userRepository.findByUsernameOrEmail(username).orElse(null);
         if (user == null) {
-            user = userRepository.findByEmailAndPassword(username, password);
+            // hash anyway: response time must not reveal which identifiers exist
+            passwordHasher.matchesNothing(password);
+            failedLoginCache.recordFailedAttempt(username, password);
+            return null;
+        }
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            failedLoginCache.recordFailedAttempt(username, password);
+            return null;
+        }
+        
+        // Rehash plain-text or weaker hashes now that the password is known
+        if (passwordHasher.needsUpgrade(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(password));
+            userRepository.save(user);
         }
         
-        return (user != null && user.getIsActive()) ? user : null;
+        return user.getIsActive() ? user : null;
     }
     
     @Transactional(readOnly = true)
@@ -102,9 +125,10 @@ public class UserService implements UserServiceInterface {
             return false;
         }
         
-        user.setPassword(newPassword.trim());
+        user.setPassword(passwordHasher.hash(newPassword.trim()));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        failedLoginCache.invalidate(user.getUsername(), user.getEmail());
         return true;
     }
     
@@ -0,0 +1,44 @@
+package com.ecommerce.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvUtils - Line-at-a-time CSV parsing shared by the bulk import services
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {}
+
+    // RFC 4180 style fields on a single line: quoted fields may contain commas and "" escapes
+    public static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
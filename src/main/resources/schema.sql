@@ -19,4 +19,40 @@ CREATE TABLE SPRING_SESSION_ATTRIBUTES (
   ATTRIBUTE_BYTES BLOB NOT NULL,
   CONSTRAINT SPRING_SESSION_ATTRIBUTES_PK PRIMARY KEY (SESSION_PRIMARY_ID, ATTRIBUTE_NAME),
   CONSTRAINT SPRING_SESSION_ATTRIBUTES_FK FOREIGN KEY (SESSION_PRIMARY_ID) REFERENCES SPRING_SESSION(PRIMARY_ID) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE user_session_data (
+  user_id BIGINT NOT NULL,
+  data_type VARCHAR(20) NOT NULL,
+  payload BLOB NOT NULL,
+  updated_at BIGINT NOT NULL,
+  CONSTRAINT user_session_data_pk PRIMARY KEY (user_id, data_type)
+);
+
+-- Pooled id source for OrderItem (MySQL has no native sequences)
+-- Hibernate's pooled optimizer reads a first value other than the initial value (1) as the top of
+-- a block of allocationSize (50) ids, so seeding at MAX(id) + 50 hands out MAX(id) + 1 .. MAX(id) + 50
+CREATE TABLE order_item_seq (
+  next_val BIGINT
+);
+INSERT INTO order_item_seq SELECT COALESCE(MAX(id), 0) + 50 FROM order_item;
+
+-- Checkout idempotency: at most one order per submission key
+ALTER TABLE orders ADD COLUMN idempotency_key VARCHAR(64) NULL;
+ALTER TABLE orders ADD CONSTRAINT uk_orders_idempotency_key UNIQUE (idempotency_key);
+
+-- Keyset review feed per product, newest first
+CREATE INDEX idx_reviews_product_created ON reviews (product_id, created_time);
+
+-- Purchase history keyset paging per user
+CREATE INDEX idx_user_order_date ON orders (user_id, order_date);
+
+-- One cart per customer and one line per product in it, whichever node adds first
+ALTER TABLE cart ADD CONSTRAINT uk_cart_customer UNIQUE (customer_id);
+ALTER TABLE cart_item ADD CONSTRAINT uk_cart_item_product UNIQUE (cart_id, product_id);
+
+-- Catalog import upserts on name + brand, normalised as the import compares them; rows that
+-- already collide on this key must be merged before the constraint can be added
+ALTER TABLE products ADD COLUMN import_key VARCHAR(151)
+  GENERATED ALWAYS AS (CONCAT(LOWER(TRIM(name)), '|', COALESCE(LOWER(TRIM(brand)), ''))) STORED;
+ALTER TABLE products ADD CONSTRAINT uk_products_import_key UNIQUE (import_key);
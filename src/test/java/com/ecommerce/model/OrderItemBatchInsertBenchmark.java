@@ -0,0 +1,115 @@
+package com.ecommerce.model;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * OrderItemBatchInsertBenchmark - Order line insert throughput against a real MySQL
+ * Persists the same orders under several hibernate.jdbc.batch_size values, with the pooled
+ * order_item_seq (allocationSize 50) and rewriteBatchedStatements as configured for the app, and
+ * prints rows/s and JDBC statements per order. Skipped unless run with mvn -Pbenchmark test -Dtest='*Benchmark'
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderItemBatchInsertBenchmark {
+
+    private static final int[] BATCH_SIZES = { 1, 10, 50, 100 };
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 500);
+    private static final int LINES_PER_ORDER = Integer.getInteger("benchmark.lines", 20);
+    private static final int WARMUP_ORDERS = 100;
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            User.class, Customer.class, Product.class, Review.class,
+            Cart.class, CartItem.class, Order.class, OrderItem.class);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @Test
+    void orderLineInserts() {
+        System.out.printf("%d orders x %d lines%n", ORDERS, LINES_PER_ORDER);
+        for (int batchSize : BATCH_SIZES) {
+            try (SessionFactory sessionFactory = sessionFactory(batchSize)) {
+                Fixture fixture = fixture(sessionFactory);
+                insertOrders(sessionFactory, fixture, WARMUP_ORDERS);
+
+                Statistics statistics = sessionFactory.getStatistics();
+                statistics.clear();
+                long started = System.nanoTime();
+                insertOrders(sessionFactory, fixture, ORDERS);
+                double seconds = (System.nanoTime() - started) / 1e9;
+
+                System.out.printf("batch_size=%-3d %10.0f rows/s %8.1f statements/order%n", batchSize,
+                        ORDERS * LINES_PER_ORDER / seconds, (double) statistics.getPrepareStatementCount() / ORDERS);
+                assertEquals((long) (WARMUP_ORDERS + ORDERS) * LINES_PER_ORDER, countOrderItems(sessionFactory));
+            }
+        }
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    // a fresh schema per run, so every batch size starts from the same empty tables
+    private static SessionFactory sessionFactory(int batchSize) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, MYSQL.getJdbcUrl())
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, MYSQL.getUsername())
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, MYSQL.getPassword())
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .build();
+        MetadataSources sources = new MetadataSources(registry);
+        for (Class<?> entity : ENTITIES) {
+            sources.addAnnotatedClass(entity);
+        }
+        return sources.buildMetadata().buildSessionFactory();
+    }
+
+    private static Fixture fixture(SessionFactory sessionFactory) {
+        return sessionFactory.fromTransaction(session -> {
+            User user = new User("benchmark", "benchmark@example.com", "unused");
+            Product product = new Product("Widget", "Benchmark product", "Tools", new BigDecimal("9.99"), "Acme");
+            session.persist(user);
+            session.persist(product);
+            return new Fixture(user.getId(), product.getId());
+        });
+    }
+
+    // one transaction per order, as checkout does
+    private static void insertOrders(SessionFactory sessionFactory, Fixture fixture, int orders) {
+        for (int i = 0; i < orders; i++) {
+            sessionFactory.inTransaction(session -> {
+                Order order = new Order(session.getReference(User.class, fixture.userId()), new BigDecimal("199.80"));
+                Product product = session.getReference(Product.class, fixture.productId());
+                for (int line = 0; line < LINES_PER_ORDER; line++) {
+                    order.addOrderItem(new OrderItem(order, product, 1, 9.99));
+                }
+                session.persist(order);
+            });
+        }
+    }
+
+    private static long countOrderItems(SessionFactory sessionFactory) {
+        return sessionFactory.fromTransaction(session ->
+                session.createSelectionQuery("select count(i) from OrderItem i", Long.class).getSingleResult());
+    }
+
+    private record Fixture(Long userId, Long productId) {}
+}
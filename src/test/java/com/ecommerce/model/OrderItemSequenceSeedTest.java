@@ -0,0 +1,94 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.SequenceGenerator;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OrderItemSequenceSeedTest - The order_item_seq seed in schema.sql must fit Hibernate's pooled optimizer
+ * Replays the optimizer against a simulated sequence table seeded the way schema.sql seeds it
+ */
+class OrderItemSequenceSeedTest {
+
+    private static final Pattern SEED = Pattern.compile("INSERT INTO order_item_seq SELECT COALESCE\\(MAX\\(id\\), 0\\) \\+ (\\d+)");
+
+    @Test
+    void seedOffsetMatchesAllocationSize() throws Exception {
+        assertEquals(allocationSize(), seedOffset());
+    }
+
+    @Test
+    void firstBlocksStartAboveExistingIds() throws Exception {
+        int allocationSize = allocationSize();
+        long offset = seedOffset();
+        for (long existingMax : new long[] { 0, 7, 1234 }) {
+            SequenceTable table = new SequenceTable(existingMax + offset, allocationSize);
+            PooledOptimizer optimizer = new PooledOptimizer(Long.class, allocationSize);
+            optimizer.injectInitialValue(1);
+
+            Set<Long> ids = new HashSet<>();
+            long previous = existingMax;
+            for (int i = 0; i < allocationSize * 3; i++) {
+                long id = (Long) optimizer.generate(table);
+                assertTrue(id > previous, "id " + id + " does not follow " + previous + " (max " + existingMax + ")");
+                assertTrue(ids.add(id));
+                previous = id;
+            }
+            assertEquals(existingMax + 1, ids.stream().mapToLong(Long::longValue).min().getAsLong());
+        }
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private static int allocationSize() throws NoSuchFieldException {
+        return OrderItem.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class).allocationSize();
+    }
+
+    private static long seedOffset() throws IOException {
+        try (InputStream schema = OrderItemSequenceSeedTest.class.getResourceAsStream("/schema.sql")) {
+            Matcher matcher = SEED.matcher(new String(schema.readAllBytes(), StandardCharsets.UTF_8));
+            assertTrue(matcher.find(), "order_item_seq seed not found in schema.sql");
+            return Long.parseLong(matcher.group(1));
+        }
+    }
+
+    /**
+     * Table-backed sequence as Hibernate drives it on MySQL: return next_val, store next_val + increment
+     */
+    private static final class SequenceTable implements AccessCallback {
+        private long nextVal;
+        private final int increment;
+
+        private SequenceTable(long seed, int increment) {
+            this.nextVal = seed;
+            this.increment = increment;
+        }
+
+        @Override
+        public IntegralDataTypeHolder getNextValue() {
+            IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class);
+            value.initialize(nextVal);
+            nextVal += increment;
+            return value;
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    }
+}
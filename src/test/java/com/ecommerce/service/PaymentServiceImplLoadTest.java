@@ -0,0 +1,168 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Payment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PaymentServiceImplLoadTest - Async payments under concurrent load against a slow in-memory gateway
+ * Checks throughput at 1k concurrent checkouts and that a timed-out charge is reported as
+ * PENDING, settles through reconcile, and is never charged twice
+ */
+class PaymentServiceImplLoadTest {
+
+    private static final int CHECKOUTS = 1000;
+    private static final long LATENCY_MS = 200;
+
+    private PaymentServiceImpl paymentService;
+
+    @AfterEach
+    void shutdown() {
+        if (paymentService != null) {
+            paymentService.shutdown();
+        }
+    }
+
+    @Test
+    void thousandConcurrentPaymentsAreBoundedByInFlightLimitNotThreads() {
+        FakeGateway gateway = new FakeGateway(LATENCY_MS);
+        paymentService = paymentService(gateway, 200, 5000, 10_000);
+
+        long started = System.nanoTime();
+        List<CompletableFuture<PaymentOutcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            outcomes.add(paymentService.processPaymentAsync(payment("key-" + i), 10.0));
+        }
+        CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        for (CompletableFuture<PaymentOutcome> outcome : outcomes) {
+            assertEquals(PaymentOutcome.APPROVED, outcome.join());
+        }
+        assertEquals(CHECKOUTS, gateway.charges.get());
+        assertTrue(gateway.maxConcurrent.get() <= 200, "in flight " + gateway.maxConcurrent.get());
+        // 1000 calls of 200ms, 200 at a time, is about 1s; one at a time would be 200s
+        assertTrue(elapsedMs < 10_000, "took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void slowChargeIsPendingAndSettlesWithoutASecondCharge() throws Exception {
+        FakeGateway gateway = new FakeGateway(500);
+        paymentService = paymentService(gateway, 10, 1000, 50);
+
+        PaymentOutcome first = paymentService.processPaymentAsync(payment("slow"), 10.0).get(2, TimeUnit.SECONDS);
+        assertEquals(PaymentOutcome.PENDING, first);
+        assertEquals(PaymentOutcome.PENDING, paymentService.reconcile("slow"));
+
+        gateway.awaitCharged("slow");
+        assertEquals(PaymentOutcome.APPROVED, paymentService.reconcile("slow"));
+
+        // a retry with the same key after the timeout gets the settled result from the gateway
+        assertEquals(PaymentOutcome.APPROVED, paymentService.processPaymentAsync(payment("slow"), 10.0).get(2, TimeUnit.SECONDS));
+        assertEquals(1, gateway.charges.get());
+    }
+
+    @Test
+    void saturatedGatewayAnswersBusyWithoutCharging() throws Exception {
+        FakeGateway gateway = new FakeGateway(1000);
+        paymentService = paymentService(gateway, 1, 50, 5000);
+
+        CompletableFuture<PaymentOutcome> holder = paymentService.processPaymentAsync(payment("holder"), 10.0);
+        gateway.awaitStarted();
+        PaymentOutcome rejected = paymentService.processPaymentAsync(payment("rejected"), 10.0).get(2, TimeUnit.SECONDS);
+
+        assertEquals(PaymentOutcome.BUSY, rejected);
+        assertEquals(PaymentOutcome.DECLINED, paymentService.reconcile("rejected"));
+        assertEquals(PaymentOutcome.APPROVED, holder.get(5, TimeUnit.SECONDS));
+        assertEquals(1, gateway.charges.get());
+    }
+
+    // ============== PRIVATE HELPER METHODS ==============
+
+    private static PaymentServiceImpl paymentService(PaymentGateway gateway, int maxInFlight,
+                                                     long acquireTimeoutMs, long gatewayTimeoutMs) {
+        PaymentServiceImpl service = new PaymentServiceImpl(maxInFlight, acquireTimeoutMs, gatewayTimeoutMs);
+        ReflectionTestUtils.setField(service, "paymentGateway", gateway);
+        return service;
+    }
+
+    private static Payment payment(String idempotencyKey) {
+        Payment payment = new Payment();
+        payment.setName("Load Test");
+        payment.setCcNumber("4111111111111111");
+        payment.setExpiryDate(YearMonth.now().plusYears(1));
+        payment.setIdempotencyKey(idempotencyKey);
+        return payment;
+    }
+
+    /**
+     * Approves every charge after a fixed latency; remembers charges by reference like a real gateway
+     */
+    private static class FakeGateway implements PaymentGateway {
+
+        private final long latencyMs;
+        private final Map<String, CompletableFuture<Boolean>> settled = new ConcurrentHashMap<>();
+        private final AtomicInteger charges = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private FakeGateway(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public boolean charge(Payment payment, double amount) {
+            CompletableFuture<Boolean> charge = new CompletableFuture<>();
+            CompletableFuture<Boolean> existing = settled.putIfAbsent(payment.getIdempotencyKey(), charge);
+            if (existing != null) {
+                return existing.join();
+            }
+            charges.incrementAndGet();
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+            }
+            charge.complete(true);
+            return true;
+        }
+
+        @Override
+        public PaymentOutcome lookup(String reference) {
+            CompletableFuture<Boolean> charge = settled.get(reference);
+            if (charge == null) {
+                return PaymentOutcome.DECLINED;
+            }
+            return !charge.isDone() ? PaymentOutcome.PENDING
+                    : charge.join() ? PaymentOutcome.APPROVED : PaymentOutcome.DECLINED;
+        }
+
+        private void awaitStarted() throws InterruptedException {
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+        }
+
+        private void awaitCharged(String reference) throws Exception {
+            settled.get(reference).get(2, TimeUnit.SECONDS);
+            Thread.sleep(20); // the service drops its local handle just after the gateway returns
+        }
+    }
+}